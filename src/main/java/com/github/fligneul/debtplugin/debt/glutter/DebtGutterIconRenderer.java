@@ -0,0 +1,121 @@
+package com.github.fligneul.debtplugin.debt.glutter;
+
+import com.github.fligneul.debtplugin.debt.icons.DebtIcons;
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.service.DebtService;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.Icon;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Gutter icon of the debts of a line, drawn by {@link DebtHighlighterService}. The tooltip and the click action are
+ * shared with {@link DebtGutterLineMarkerProvider}.
+ */
+public final class DebtGutterIconRenderer extends GutterIconRenderer {
+    private static final Logger LOG = Logger.getInstance(DebtGutterIconRenderer.class);
+
+    private final Project project;
+    private final List<DebtItem> debtsOnLine;
+
+    public DebtGutterIconRenderer(@NotNull Project project, @NotNull List<DebtItem> debtsOnLine) {
+        this.project = project;
+        this.debtsOnLine = List.copyOf(debtsOnLine);
+    }
+
+    @Override
+    public @NotNull Icon getIcon() {
+        return DebtIcons.TECHNICAL_DEBT;
+    }
+
+    @Override
+    public @Nullable String getTooltipText() {
+        return tooltip(debtsOnLine);
+    }
+
+    @Override
+    public @Nullable AnAction getClickAction() {
+        return DumbAwareAction.create(e -> select(project, debtsOnLine));
+    }
+
+    @Override
+    public boolean isNavigateAction() {
+        return true;
+    }
+
+    @Override
+    public @NotNull GutterIconRenderer.Alignment getAlignment() {
+        return GutterIconRenderer.Alignment.LEFT;
+    }
+
+    @Override
+    public @NotNull String getAccessibleName() {
+        return "Debt";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof DebtGutterIconRenderer that && Objects.equals(debtsOnLine, that.debtsOnLine);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(debtsOnLine);
+    }
+
+    static String tooltip(List<DebtItem> debtsOnLine) {
+        if (debtsOnLine.size() == 1) {
+            DebtItem d = debtsOnLine.get(0);
+            return """
+                    Debt
+                    &nbsp;&nbsp;&nbsp;&nbsp;%s
+                    by %s
+                    """
+                    .formatted(getDebtName(d), d.getUsername());
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (DebtItem it : debtsOnLine) {
+                sb.append("Debt : \n ")
+                        .append("&nbsp;&nbsp;&nbsp;&nbsp;")
+                        .append(getDebtName(it))
+                        .append("\n")
+                        .append("by ")
+                        .append(it.getUsername())
+                        .append("\n");
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Select the first debt of the line in the tool window.
+     */
+    static void select(Project project, List<DebtItem> debtsOnLine) {
+        if (!debtsOnLine.isEmpty()) {
+            final String currentFile = debtsOnLine.get(0).getFile();
+            final int currentLine = debtsOnLine.get(0).getLine();
+
+            LOG.debug("Selection of the file %s : line %s".formatted(currentFile, currentLine));
+
+            project.getMessageBus().syncPublisher(DebtService.SELECTION_TOPIC).select(currentFile, currentLine);
+        }
+    }
+
+    private static @NotNull String getDebtName(final DebtItem d) {
+        final String debtName = Optional.ofNullable(d.getTitle())
+                .filter(str -> !str.isBlank())
+                .or(() -> Optional.ofNullable(d.getDescription())
+                        .filter(str -> !str.isBlank()))
+                .orElse("UNKNOWN");
+        return debtName;
+    }
+}
@@ -2,8 +2,9 @@ package com.github.fligneul.debtplugin.debt.glutter;
 
 import com.github.fligneul.debtplugin.debt.icons.DebtIcons;
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
-import com.github.fligneul.debtplugin.debt.model.Repository;
+import com.github.fligneul.debtplugin.debt.service.DebtAnchorService;
 import com.github.fligneul.debtplugin.debt.service.DebtService;
+import com.github.fligneul.debtplugin.debt.settings.DebtSettings;
 import com.intellij.codeInsight.daemon.LineMarkerInfo;
 import com.intellij.codeInsight.daemon.LineMarkerProvider;
 import com.intellij.openapi.diagnostic.Logger;
@@ -11,36 +12,47 @@ import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.util.PsiTreeUtil;
-import com.intellij.util.Function;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import javax.swing.Icon;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.ObjIntConsumer;
 
 public class DebtGutterLineMarkerProvider implements LineMarkerProvider, DumbAware {
     private static final Logger LOG = Logger.getInstance(DebtGutterLineMarkerProvider.class);
+    private static final Key<FileDebts> FILE_DEBTS = Key.create("debt.gutter.fileDebts");
 
     @Override
     public @Nullable LineMarkerInfo<?> getLineMarkerInfo(PsiElement element) {
         PsiFile file = element.getContainingFile();
         if (file == null) return null;
+        if (file.getVirtualFile() == null) return null;
+        String osPath = file.getVirtualFile().getPath();
+
+        Project project = element.getProject();
+        // Drawn by DebtHighlighterService instead
+        if (project.getService(DebtSettings.class).getState().isDebtHighlightersEnabled()) return null;
+        DebtService debtService = project.getService(DebtService.class);
+        // Nothing to show until the background load completes; highlighting is restarted then
+        if (!debtService.isLoaded()) return null;
+        // Most files have no debts: answered from the file name, before any PSI or path work
+        if (!debtService.mayHaveDebts(osPath)) return null;
+
         Document doc = file.getViewProvider().getDocument();
         if (doc == null) return null;
         if (element.getTextRange() == null) return null;
 
         int lineNumber = doc.getLineNumber(element.getTextRange().getStartOffset());
+        List<DebtItem> debtsOnLine = getFileDebts(project, debtService, file, doc, osPath).onLine(lineNumber + 1);
+        if (debtsOnLine.isEmpty()) return null;
+
         int lineStartOffset = doc.getLineStartOffset(lineNumber);
 
         PsiElement firstAtLine = file.findElementAt(lineStartOffset);
@@ -50,89 +62,40 @@ public class DebtGutterLineMarkerProvider implements LineMarkerProvider, DumbAwa
 
         if (element != firstNonWs) return null;
 
-        Project project = element.getProject();
-        DebtService debtService = project.getService(DebtService.class);
-
-        if (file.getVirtualFile() == null) return null;
-        String osPath = file.getVirtualFile().getPath();
-        String basePath = debtService.findRepoRootForAbsolutePath(osPath);
-        Optional<Map.Entry<Repository, List<DebtItem>>> debtsForRepositoryOpt = debtService.getDebtForRepositoryAbsolutePath(basePath);
-
-        if (debtsForRepositoryOpt.isEmpty()) {
-            debtService.loadDebts();
-            debtsForRepositoryOpt = debtService.getDebtForRepositoryAbsolutePath(basePath);
-            if (debtsForRepositoryOpt.isEmpty()) {
-                return null;
-            }
-        }
-
-        var debtsForRepository = debtsForRepositoryOpt.get();
-
-        String currentRel = toProjectRelative(osPath, basePath);
-        int lineInFile = lineNumber + 1;
-        List<DebtItem> debtsOnLine = new ArrayList<>();
-        for (DebtItem debtItem : debtsForRepository.getValue()) {
-            String stored = debtItem.getFile();
-            if (stored.isBlank()) continue;
-            String storedRel = toProjectRelative(stored, basePath);
-            if (storedRel.equalsIgnoreCase(currentRel) && debtItem.getLine() == lineInFile) {
-                debtsOnLine.add(debtItem);
-            }
-        }
-        if (debtsOnLine.isEmpty()) return null;
-
-        Icon icon = DebtIcons.TECHNICAL_DEBT;
-        Function<PsiElement, String> tooltipProvider = psi -> {
-            if (debtsOnLine.size() == 1) {
-                DebtItem d = debtsOnLine.get(0);
-                return """
-                        Debt
-                        &nbsp;&nbsp;&nbsp;&nbsp;%s
-                        by %s
-                        """
-                        .formatted(getDebtName(d), d.getUsername());
-            } else {
-                StringBuilder sb = new StringBuilder();
-                for (DebtItem it : debtsOnLine) {
-                    sb.append("Debt : \n ")
-                            .append("&nbsp;&nbsp;&nbsp;&nbsp;")
-                            .append(getDebtName(it))
-                            .append("\n")
-                            .append("by ")
-                            .append(it.getUsername())
-                            .append("\n");
-                }
-                return sb.toString();
-            }
-        };
-
         return new LineMarkerInfo<>(
                 element,
                 firstNonWs.getTextRange(),
-                icon,
-                tooltipProvider,
-                (evt, el) -> {
-                    if (!debtsOnLine.isEmpty()) {
-                        final String currentFile = debtsOnLine.get(0).getFile();
-                        final int currentLine = debtsOnLine.get(0).getLine();
-
-                        LOG.debug("Selection of the file %s : line %s".formatted(currentFile, currentLine));
-
-                        project.getMessageBus().syncPublisher(DebtService.SELECTION_TOPIC).select(currentFile, currentLine);
-                    }
-                },
+                DebtIcons.TECHNICAL_DEBT,
+                psi -> DebtGutterIconRenderer.tooltip(debtsOnLine),
+                (evt, el) -> DebtGutterIconRenderer.select(project, debtsOnLine),
                 GutterIconRenderer.Alignment.LEFT,
                 () -> "Debt"
         );
     }
 
-    private @NotNull String getDebtName(final DebtItem d) {
-        final String debtName = Optional.ofNullable(d.getTitle())
-                .filter(str -> !str.isBlank())
-                .or(() -> Optional.ofNullable(d.getDescription())
-                        .filter(str -> !str.isBlank()))
-                .orElse("UNKNOWN");
-        return debtName;
+    /**
+     * @return the debts of the file by line, computed once per document modification and debt snapshot
+     */
+    private static FileDebts getFileDebts(Project project, DebtService debtService, PsiFile file, Document doc, String osPath) {
+        long modificationStamp = doc.getModificationStamp();
+        long snapshotVersion = debtService.getSnapshot().getVersion();
+        FileDebts cached = file.getUserData(FILE_DEBTS);
+        if (cached != null && cached.modificationStamp() == modificationStamp && cached.snapshotVersion() == snapshotVersion) {
+            return cached;
+        }
+
+        List<List<DebtItem>> byLine = new ArrayList<>(Collections.nCopies(doc.getLineCount() + 1, null));
+        ObjIntConsumer<DebtItem> addDebt = (debtItem, line) -> {
+            if (line < 1 || line >= byLine.size()) return;
+            if (byLine.get(line) == null) byLine.set(line, new ArrayList<>(1));
+            byLine.get(line).add(debtItem);
+        };
+        // Lines of open documents follow the edits before being written back to the debts
+        project.getService(DebtAnchorService.class).forEachDebt(doc, osPath, addDebt);
+
+        FileDebts fileDebts = new FileDebts(modificationStamp, snapshotVersion, byLine);
+        file.putUserData(FILE_DEBTS, fileDebts);
+        return fileDebts;
     }
 
     private static @Nullable PsiElement nextNonWhitespace(@Nullable PsiElement start) {
@@ -148,32 +111,13 @@ public class DebtGutterLineMarkerProvider implements LineMarkerProvider, DumbAwa
         // Not used
     }
 
-    private static String normalizePath(String path) {
-        try {
-            return Paths.get(path).toAbsolutePath().normalize().toString().replace('\\', '/').toLowerCase(Locale.getDefault());
-        } catch (Exception e) {
-            return path.replace('\\', '/').toLowerCase(Locale.getDefault());
-        }
-    }
-
-    private static String toProjectRelative(String anyPath, String basePath) {
-        if (anyPath == null) return "";
-        String norm = anyPath.replace('\\', '/');
-        try {
-            Path p = Paths.get(anyPath);
-            if (basePath != null) {
-                Path base = Paths.get(basePath).toAbsolutePath().normalize();
-                Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : base.resolve(p).normalize();
-                if (abs.startsWith(base)) {
-                    return base.relativize(abs).toString().replace('\\', '/');
-                }
-                return abs.toString().replace('\\', '/');
-            } else {
-                Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : p.normalize();
-                return abs.toString().replace('\\', '/');
-            }
-        } catch (Exception e) {
-            return norm;
+    /**
+     * @param byLine debts by 1-based line, null for the lines without debts
+     */
+    private record FileDebts(long modificationStamp, long snapshotVersion, List<List<DebtItem>> byLine) {
+        List<DebtItem> onLine(int line) {
+            List<DebtItem> debts = line < byLine.size() ? byLine.get(line) : null;
+            return debts != null ? debts : List.of();
         }
     }
 }
@@ -0,0 +1,206 @@
+package com.github.fligneul.debtplugin.debt.glutter;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.service.DebtAnchorListener;
+import com.github.fligneul.debtplugin.debt.service.DebtAnchorService;
+import com.github.fligneul.debtplugin.debt.service.DebtPathService;
+import com.github.fligneul.debtplugin.debt.service.DebtService;
+import com.github.fligneul.debtplugin.debt.settings.DebtSettings;
+import com.github.fligneul.debtplugin.debt.settings.DebtSettingsListener;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.event.EditorFactoryEvent;
+import com.intellij.openapi.editor.event.EditorFactoryListener;
+import com.intellij.openapi.editor.markup.HighlighterLayer;
+import com.intellij.openapi.editor.markup.RangeHighlighter;
+import com.intellij.openapi.editor.markup.TextAttributes;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.JBColor;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Draws the debt gutter icons and line backgrounds as line highlighters in the markup model of each editor of the
+ * project, instead of {@link DebtGutterLineMarkerProvider}, when enabled in the settings.
+ * <p>
+ * Highlighters follow the edits on their own; when the debts change, only the editors of the changed files are
+ * updated, and in them only the lines whose debts differ. The highlighting daemon is never restarted.
+ * Updates are driven by {@link DebtAnchorService#TOPIC}, so the anchored lines are always in sync when read.
+ * All the highlighters are managed on the EDT.
+ */
+@Service(Service.Level.PROJECT)
+public final class DebtHighlighterService implements Disposable {
+    private static final Logger LOG = Logger.getInstance(DebtHighlighterService.class);
+    private static final TextAttributes DEBT_LINE_ATTRIBUTES =
+            new TextAttributes(null, new JBColor(0xFFF6DF, 0x3B3628), null, null, Font.PLAIN);
+
+    private final Project project;
+    private final DebtSettings settings;
+    private final DebtPathService pathService;
+    // Highlighters drawn in each editor
+    private final Map<Editor, List<RangeHighlighter>> highlightersByEditor = new HashMap<>();
+    private boolean enabled;
+
+    public DebtHighlighterService(@NotNull Project project) {
+        this.project = project;
+        this.settings = project.getService(DebtSettings.class);
+        this.pathService = project.getService(DebtPathService.class);
+        this.enabled = settings.getState().isDebtHighlightersEnabled();
+
+        EditorFactory.getInstance().addEditorFactoryListener(new EditorFactoryListener() {
+            @Override
+            public void editorCreated(@NotNull EditorFactoryEvent event) {
+                if (enabled && event.getEditor().getProject() == project) {
+                    render(event.getEditor().getDocument());
+                }
+            }
+
+            @Override
+            public void editorReleased(@NotNull EditorFactoryEvent event) {
+                clear(event.getEditor());
+            }
+        }, this);
+        project.getMessageBus().connect(this).subscribe(DebtAnchorService.TOPIC, new DebtAnchorListener() {
+            @Override
+            public void anchorsReset() {
+                if (enabled) renderAll();
+            }
+
+            @Override
+            public void anchorsChanged(Set<String> fileKeys) {
+                if (!enabled) return;
+                for (Document document : openDocuments()) {
+                    final VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+                    final String fileKey = file != null ? pathService.fileKeyOfAbsolutePath(file.getPath()) : null;
+                    if (fileKey != null && fileKeys.contains(fileKey)) {
+                        render(document);
+                    }
+                }
+            }
+        });
+        project.getMessageBus().connect(this).subscribe(DebtSettings.TOPIC, (DebtSettingsListener) state -> onEdt(() -> {
+            if (enabled == state.isDebtHighlightersEnabled()) return;
+
+            enabled = state.isDebtHighlightersEnabled();
+            if (enabled) {
+                renderAll();
+            } else {
+                new ArrayList<>(highlightersByEditor.keySet()).forEach(this::clear);
+            }
+            // Hand the icons over between the line marker provider and the highlighters
+            DaemonCodeAnalyzer.getInstance(project).restart();
+        }));
+    }
+
+    @Override
+    public void dispose() {
+        new ArrayList<>(highlightersByEditor.keySet()).forEach(this::clear);
+    }
+
+    private void renderAll() {
+        openDocuments().forEach(this::render);
+    }
+
+    /**
+     * Update the highlighters of the editors of the document to its current debts.
+     */
+    private void render(final Document document) {
+        final VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+        if (file == null) return;
+
+        final DebtService debtService = project.getService(DebtService.class);
+        final TreeMap<Integer, List<DebtItem>> wanted = new TreeMap<>();
+        if (debtService.isLoaded() && debtService.mayHaveDebts(file.getPath())) {
+            project.getService(DebtAnchorService.class).forEachDebt(document, file.getPath(),
+                    (debtItem, line) -> wanted.computeIfAbsent(line, l -> new ArrayList<>(1)).add(debtItem));
+        }
+
+        for (Editor editor : EditorFactory.getInstance().getEditors(document, project)) {
+            render(editor, new TreeMap<>(wanted), file);
+        }
+    }
+
+    /**
+     * Update the highlighters of the editor to the wanted debts, touching only the lines whose debts changed.
+     */
+    private void render(final Editor editor, final TreeMap<Integer, List<DebtItem>> wanted, final VirtualFile file) {
+        final Document document = editor.getDocument();
+        final List<RangeHighlighter> highlighters = highlightersByEditor.computeIfAbsent(editor, e -> new ArrayList<>());
+        int removed = 0;
+        for (Iterator<RangeHighlighter> iterator = highlighters.iterator(); iterator.hasNext(); ) {
+            final RangeHighlighter highlighter = iterator.next();
+            final int line = highlighter.isValid() ? document.getLineNumber(highlighter.getStartOffset()) + 1 : -1;
+            final List<DebtItem> debtsOnLine = wanted.get(line);
+            if (debtsOnLine != null && highlighter.getGutterIconRenderer() instanceof DebtGutterIconRenderer renderer
+                    && renderer.equals(new DebtGutterIconRenderer(project, debtsOnLine))) {
+                // Unchanged line
+                wanted.remove(line);
+            } else {
+                highlighter.dispose();
+                iterator.remove();
+                removed++;
+            }
+        }
+
+        int added = 0;
+        for (Map.Entry<Integer, List<DebtItem>> entry : wanted.entrySet()) {
+            final int line = entry.getKey() - 1;
+            if (line < 0 || line >= document.getLineCount()) continue;
+
+            final RangeHighlighter highlighter = editor.getMarkupModel()
+                    .addLineHighlighter(line, HighlighterLayer.ADDITIONAL_SYNTAX, DEBT_LINE_ATTRIBUTES);
+            highlighter.setGutterIconRenderer(new DebtGutterIconRenderer(project, entry.getValue()));
+            highlighters.add(highlighter);
+            added++;
+        }
+
+        if (highlighters.isEmpty()) {
+            highlightersByEditor.remove(editor);
+        }
+        if (LOG.isDebugEnabled() && (added > 0 || removed > 0)) {
+            LOG.debug("Debt highlighters of %s: %s added, %s removed".formatted(file.getPath(), added, removed));
+        }
+    }
+
+    private void clear(final Editor editor) {
+        final List<RangeHighlighter> highlighters = highlightersByEditor.remove(editor);
+        if (highlighters != null) {
+            highlighters.forEach(RangeHighlighter::dispose);
+        }
+    }
+
+    private Set<Document> openDocuments() {
+        final Set<Document> documents = new LinkedHashSet<>();
+        for (Editor editor : EditorFactory.getInstance().getAllEditors()) {
+            if (editor.getProject() == project) {
+                documents.add(editor.getDocument());
+            }
+        }
+        return documents;
+    }
+
+    private void onEdt(final Runnable runnable) {
+        if (ApplicationManager.getApplication().isDispatchThread()) {
+            runnable.run();
+        } else {
+            ApplicationManager.getApplication().invokeLater(runnable, project.getDisposed());
+        }
+    }
+}
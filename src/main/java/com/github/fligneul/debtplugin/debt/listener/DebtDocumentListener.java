@@ -1,7 +1,12 @@
 package com.github.fligneul.debtplugin.debt.listener;
 
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.service.DebtAnchorService;
+import com.github.fligneul.debtplugin.debt.service.DebtChange;
 import com.github.fligneul.debtplugin.debt.service.DebtService;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.command.CommandEvent;
+import com.intellij.openapi.command.CommandListener;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.event.DocumentEvent;
@@ -9,12 +14,13 @@ import com.intellij.openapi.editor.event.DocumentListener;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.Alarm;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Updates stored debt line numbers when the underlying file is edited.
@@ -22,93 +28,106 @@ import java.util.List;
  * Basic rules:
  * - If lines are inserted/removed above a debt line, shift it by the line delta.
  * - If a change spans over a debt line, move the debt to the first changed line.
+ *
+ * Line moves are accumulated per document in a {@link LineEditScript} and applied to the debts in one batch at the end
+ * of the command, or after a short pause for edits made outside a command: bulk edits (reformat, paste, optimize
+ * imports) cost one pass over the moved debts instead of one update per event.
+ *
+ * Documents open in an editor are left to {@link DebtAnchorService}, which tracks their debts with range markers.
  */
-public final class DebtDocumentListener implements DocumentListener {
+public final class DebtDocumentListener implements DocumentListener, CommandListener {
     private static final Logger LOG = Logger.getInstance(DebtDocumentListener.class);
+    // Pause after which the edits made outside a command are applied
+    private static final int DEBOUNCE_MS = 300;
 
     private final Project project;
+    private final Alarm flushAlarm;
+    // Edits not applied yet, by document
+    private final Map<Document, PendingEdits> pendingEdits = new LinkedHashMap<>();
 
-    public DebtDocumentListener(@NotNull Project project) {
+    public DebtDocumentListener(@NotNull Project project, @NotNull Disposable parentDisposable) {
         this.project = project;
+        this.flushAlarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, parentDisposable);
     }
 
     @Override
     public void documentChanged(@NotNull DocumentEvent event) {
         try {
             Document doc = event.getDocument();
-            VirtualFile vf = FileDocumentManager.getInstance().getFile(doc);
-            if (vf == null) return;
-
-            DebtService debtService = project.getService(DebtService.class);
-            String repoRoot = debtService.findRepoRootForAbsolutePath(vf.getPath());
-            String filePath = toProjectRelativeSafe(vf.getPath(), repoRoot);
-
-            // Compute line delta
-            int startOffset = event.getOffset();
-            int startLine = doc.getLineNumber(startOffset) + 1; // 1-based
-
-            CharSequence oldFrag = event.getOldFragment();
-            CharSequence newFrag = event.getNewFragment();
-            int oldLines = countNewLines(oldFrag);
-            int newLines = countNewLines(newFrag);
-            // If change ends with a newline, treat as adding a line boundary
-            // DocumentEvent fragments do not include implicit newline; the above is sufficient for shifts
-            int delta = newLines - oldLines;
-
-            if (delta == 0 && oldLines == 0 && newLines == 0) {
+            int oldLines = countNewLines(event.getOldFragment());
+            int newLines = countNewLines(event.getNewFragment());
+            if (oldLines == 0 && newLines == 0) {
                 // No line impact; nothing to do
                 return;
             }
 
-            int affectedLastLine = startLine + Math.max(oldLines, 0); // inclusive region end (pre-change)
+            VirtualFile vf = FileDocumentManager.getInstance().getFile(doc);
+            if (vf == null) return;
+            // Most edited files have no debts
+            if (!project.getService(DebtService.class).mayHaveDebts(vf.getPath())) return;
+            if (project.getService(DebtAnchorService.class).isTracked(doc)) return;
+
+            int startLine = doc.getLineNumber(event.getOffset()) + 1; // 1-based
+            synchronized (pendingEdits) {
+                pendingEdits.computeIfAbsent(doc, d -> new PendingEdits(vf.getPath(), new LineEditScript()))
+                        .script()
+                        .add(startLine, oldLines, newLines);
+            }
+            flushAlarm.cancelAllRequests();
+            flushAlarm.addRequest(this::flush, DEBOUNCE_MS);
+        } catch (Exception ex) {
+            LOG.warn("DebtDocumentListener failed to process document change: " + ex.getMessage(), ex);
+        }
+    }
 
-            final List<Runnable> updates = new ArrayList<>();
+    @Override
+    public void commandFinished(@NotNull CommandEvent event) {
+        flush();
+    }
 
-            for (DebtItem debtItem : debtService.all()) {
-                String repoForDebtFile = debtService.findRepoRootForAbsolutePath(debtItem.getFile());
-                String debtPath = toProjectRelativeSafe(debtItem.getFile(), repoForDebtFile);
-                if (!equalsPathIgnoreCase(debtPath, filePath)) continue;
+    /**
+     * Apply the pending line moves of every document in one batch.
+     */
+    public void flush() {
+        final List<PendingEdits> edits;
+        synchronized (pendingEdits) {
+            if (pendingEdits.isEmpty()) return;
+            edits = new ArrayList<>(pendingEdits.values());
+            pendingEdits.clear();
+        }
 
-                int line = debtItem.getLine();
-                if (line > affectedLastLine) {
-                    int newLine = line + delta;
-                    if (newLine < 1) newLine = 1;
-                    if (newLine != line) {
-                        final DebtItem od = debtItem;
-                        final int nl = newLine;
-                        updates.add(() -> applyLineUpdate(debtService, od, nl));
-                    }
-                } else if (line >= startLine && line <= affectedLastLine) {
-                    // Change overlaps the debt line: attach it to the start of the changed region
-                    int newLine = startLine;
-                    if (newLine < 1) newLine = 1;
-                    if (newLine != line) {
-                        final DebtItem od2 = debtItem;
-                        final int nl2 = newLine;
-                        updates.add(() -> applyLineUpdate(debtService, od2, nl2));
+        try {
+            DebtService debtService = project.getService(DebtService.class);
+            final List<DebtChange> updates = new ArrayList<>();
+            for (PendingEdits pending : edits) {
+                final int firstMovedLine = pending.script().firstMovedLine();
+                if (firstMovedLine < 0) continue;
+
+                // Debts above the first moved line are not affected
+                for (DebtItem debtItem : debtService.getLineIndex(pending.path()).fromLine(firstMovedLine)) {
+                    final int newLine = pending.script().map(debtItem.getLine());
+                    if (newLine != debtItem.getLine()) {
+                        updates.add(lineUpdate(debtItem, newLine));
                     }
                 }
             }
 
-            // Apply collected updates
             if (!updates.isEmpty()) {
-                LOG.info("DebtDocumentListener: applying " + updates.size() + " line update(s) for " + filePath +
-                        " startLine=" + startLine + " delta=" + delta + " oldLines=" + oldLines + " newLines=" + newLines);
-                // Run updates one by one; DebtService.update() persists and refreshes highlighting.
-                // For performance we could batch, but keep it simple for now.
-                for (Runnable r : updates) r.run();
+                LOG.info("DebtDocumentListener: applying " + updates.size() + " line update(s) for " + edits.size() + " document(s)");
+                // One batch: a single save, refresh and highlighting restart whatever the number of shifted debts
+                debtService.apply(updates);
             }
         } catch (Exception ex) {
-            LOG.warn("DebtDocumentListener failed to process document change: " + ex.getMessage(), ex);
+            LOG.warn("DebtDocumentListener failed to apply document changes: " + ex.getMessage(), ex);
         }
     }
 
-    private static void applyLineUpdate(DebtService service, DebtItem oldItem, int newLine) {
+    private static DebtChange lineUpdate(DebtItem oldItem, int newLine) {
         final DebtItem updated = oldItem.toBuilder()
                 .withLine(newLine)
                 .build();
 
-        service.update(oldItem, updated);
+        return DebtChange.update(oldItem, updated);
     }
 
     private static int countNewLines(CharSequence seq) {
@@ -120,28 +139,6 @@ public final class DebtDocumentListener implements DocumentListener {
         return c;
     }
 
-    private static boolean equalsPathIgnoreCase(String a, String b) {
-        if (a == null || b == null) return false;
-        return a.replace('\\', '/').equalsIgnoreCase(b.replace('\\', '/'));
-    }
-
-    private static String toProjectRelativeSafe(String anyPath, String basePath) {
-        if (anyPath == null) return "";
-        try {
-            Path p = Paths.get(anyPath);
-            if (basePath != null) {
-                Path base = Paths.get(basePath).toAbsolutePath().normalize();
-                Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : base.resolve(p).normalize();
-                if (abs.startsWith(base)) {
-                    return base.relativize(abs).toString().replace('\\', '/');
-                }
-                return abs.toString().replace('\\', '/');
-            } else {
-                Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : p.normalize();
-                return abs.toString().replace('\\', '/');
-            }
-        } catch (Exception e) {
-            return anyPath.replace('\\', '/');
-        }
+    private record PendingEdits(String path, LineEditScript script) {
     }
 }
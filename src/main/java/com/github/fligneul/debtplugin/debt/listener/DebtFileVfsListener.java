@@ -0,0 +1,54 @@
+package com.github.fligneul.debtplugin.debt.listener;
+
+import com.github.fligneul.debtplugin.debt.model.Repository;
+import com.github.fligneul.debtplugin.debt.service.DebtService;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listens to Virtual File System changes of the repositories debt files (VCS update, branch switch, external editor)
+ * to reload only the modified repositories.
+ */
+public final class DebtFileVfsListener implements BulkFileListener {
+    private static final Logger LOG = Logger.getInstance(DebtFileVfsListener.class);
+
+    private final Project project;
+
+    public DebtFileVfsListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
+        try {
+            if (events.isEmpty()) return;
+            final DebtService debtService = project.getService(DebtService.class);
+            // The initial load reads the files anyway
+            if (!debtService.isLoaded()) return;
+
+            final Set<Repository> repositories = new LinkedHashSet<>();
+            for (VFileEvent event : events) {
+                if (event instanceof VFileContentChangeEvent || event instanceof VFileCreateEvent || event instanceof VFileDeleteEvent) {
+                    debtService.findRepositoryForDebtFile(event.getPath()).ifPresent(repositories::add);
+                }
+            }
+
+            if (!repositories.isEmpty()) {
+                if (LOG.isDebugEnabled()) LOG.debug("Debt files changed on disk for repositories: " + repositories);
+                debtService.reloadDebtFilesInBackground(repositories);
+            }
+        } catch (Exception ex) {
+            LOG.warn("DebtFileVfsListener.after failed: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.github.fligneul.debtplugin.debt.listener;
 
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.model.Repository;
+import com.github.fligneul.debtplugin.debt.service.DebtChange;
 import com.github.fligneul.debtplugin.debt.service.DebtService;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
@@ -11,13 +12,11 @@ import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Listens to Virtual File System changes to keep stored debt file paths in sync
@@ -38,6 +37,7 @@ public final class DebtVfsListener implements BulkFileListener {
             if (events.isEmpty()) return;
             DebtService debtService = project.getService(DebtService.class);
             String basePath = project.getBasePath();
+            final List<DebtChange> changes = new ArrayList<>();
 
             for (VFileEvent event : events) {
                 try {
@@ -61,18 +61,21 @@ public final class DebtVfsListener implements BulkFileListener {
 
                     String oldRepoRoot = debtService.findRepoRootForAbsolutePath(oldPathAbs);
                     String newRepoRoot = debtService.findRepoRootForAbsolutePath(newPathAbs);
-                    String oldRel = oldRepoRoot.isEmpty() ? toProjectRelativeSafe(oldPathAbs, basePath) : debtService.toRepoRelative(oldPathAbs, oldRepoRoot);
-                    String newRel = oldRepoRoot.isEmpty() ? toProjectRelativeSafe(newPathAbs, basePath) : debtService.toRepoRelative(newPathAbs, oldRepoRoot);
-                    updateItems(debtService,
+                    String newRel = debtService.toRepoRelative(newPathAbs, newRepoRoot.isEmpty() ? basePath : newRepoRoot);
+                    collectChanges(debtService,
                             oldRepoRoot,
                             newRepoRoot,
-                            oldRel,
-                            newRel);
+                            oldPathAbs,
+                            newRel,
+                            changes);
 
                 } catch (Exception perEventEx) {
                     LOG.warn("DebtVfsListener: failed to process event: " + perEventEx.getMessage(), perEventEx);
                 }
             }
+
+            // All renames/moves of this VFS batch are persisted and refreshed once
+            debtService.apply(changes);
         } catch (Exception ex) {
             LOG.warn("DebtVfsListener.after failed: " + ex.getMessage(), ex);
         }
@@ -84,78 +87,39 @@ public final class DebtVfsListener implements BulkFileListener {
         return (p + name).replace('\\', '/');
     }
 
-    private void updateItems(DebtService service,
-                             String oldRepoRoot,
-                             String newRepoRoot,
-                             String oldRel,
-                             String newRel) {
-
-        if (oldRepoRoot.equals(newRepoRoot)) {
-            // File has been moved or renamed in the same Repository
-            final Map.Entry<Repository, List<DebtItem>> debtsForRepository = service.getDebtForRepositoryAbsolutePath(oldRepoRoot)
-                    .orElseThrow();
-
-            debtsForRepository.getValue()
-                    .stream()
-                    .filter(debtItem -> debtItem.getFile().equals(oldRel))
-                    .findFirst()
-                    .ifPresent(oldItem -> applyFileUpdate(debtsForRepository, service, oldItem, newRel));
-        } else {
-            // File has been moved or renamed in another Repository
-            final Map.Entry<Repository, List<DebtItem>> oldRepository = service.getDebtForRepositoryAbsolutePath(oldRepoRoot)
-                    .orElseThrow();
-
-            DebtItem oldItem = null;
-            int index = -1;
-            for (int i = 0; i < oldRepository.getValue().size(); i++) {
-                final DebtItem debtItem = oldRepository.getValue().get(i);
-                if (debtItem.getFile().equals(oldRel)) {
-                    oldItem = debtItem;
-                    index = i;
-                    break;
-                }
-            }
-
-            if (index > -1) {
-                oldRepository.getValue().remove(index);
-            }
-
-            if (oldItem != null) {
-                final DebtItem updated = oldItem
-                        .toBuilder()
-                        .withFile(newRel)
-                        .build();
-
-                service.add(updated, newRepoRoot);
-            }
+    private void collectChanges(DebtService service,
+                                String oldRepoRoot,
+                                String newRepoRoot,
+                                String oldPathAbs,
+                                String newRel,
+                                List<DebtChange> changes) {
+        if (oldRepoRoot.isEmpty()) return;
+
+        // Debts of the old file, found by file key instead of comparing the path of every debt of the repository
+        final List<DebtItem> movedItems = service.getLineIndex(oldPathAbs).all();
+        if (movedItems.isEmpty()) return;
+
+        final boolean sameRepository = oldRepoRoot.equals(newRepoRoot);
+        final Optional<Repository> targetRepository = sameRepository ? Optional.empty() : service.findLoadedRepository(newRepoRoot);
+        if (!sameRepository && targetRepository.isEmpty()) {
+            // Removing the debts without adding them anywhere would delete them from the debt file
+            LOG.info("DebtVfsListener: " + oldPathAbs + " moved out of the loaded repositories, its " + movedItems.size() + " debt(s) are kept");
+            return;
         }
-    }
-
-    private void applyFileUpdate(final Map.Entry<Repository, List<DebtItem>> debtsForRepository, DebtService service, DebtItem oldItem, String newFile) {
-        final DebtItem updated = oldItem.toBuilder()
-                .withFile(newFile)
-                .build();
 
-        service.update(debtsForRepository, oldItem, updated);
-    }
+        for (DebtItem oldItem : movedItems) {
+            final DebtItem updated = oldItem.toBuilder()
+                    .withFile(newRel)
+                    .build();
 
-    private static String toProjectRelativeSafe(String anyPath, @Nullable String basePath) {
-        if (anyPath == null) return "";
-        try {
-            Path p = Paths.get(anyPath);
-            if (basePath != null) {
-                Path base = Paths.get(basePath).toAbsolutePath().normalize();
-                Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : base.resolve(p).normalize();
-                if (abs.startsWith(base)) {
-                    return base.relativize(abs).toString().replace('\\', '/');
-                }
-                return abs.toString().replace('\\', '/');
+            if (sameRepository) {
+                // File has been moved or renamed in the same Repository
+                changes.add(DebtChange.update(oldItem, updated));
             } else {
-                Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : p.normalize();
-                return abs.toString().replace('\\', '/');
+                // File has been moved or renamed in another Repository
+                changes.add(DebtChange.remove(oldItem));
+                changes.add(DebtChange.add(updated, targetRepository.get().getRepositoryAbsolutePath()));
             }
-        } catch (Exception e) {
-            return anyPath.replace('\\', '/');
         }
     }
 }
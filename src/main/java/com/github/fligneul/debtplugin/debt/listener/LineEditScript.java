@@ -0,0 +1,105 @@
+package com.github.fligneul.debtplugin.debt.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line moves of a document accumulated over several edits, as applied by {@link DebtDocumentListener} to debt lines.
+ * <p>
+ * Each edit keeps the lines above it, moves the lines it spans to its first line and shifts the lines below it.
+ * Edits are composed as they are added into a single mapping made of ranges of original lines that are either shifted
+ * or moved to one line: mapping a line costs a binary search whatever the number of edits, and repeated edits at the
+ * same place (typing, a paste split in several events) do not add ranges.
+ */
+final class LineEditScript {
+    // Ranges sorted by their first line, the first one starting at line 1 and the last one unbounded
+    private final List<Range> ranges = new ArrayList<>(List.of(new Range(1, false, 0)));
+
+    /**
+     * Compose an edit after the ones already added.
+     *
+     * @param startLine first changed line, 1-based
+     * @param oldLines  number of line breaks removed
+     * @param newLines  number of line breaks inserted
+     */
+    void add(final int startLine, final int oldLines, final int newLines) {
+        final int lastSpannedLine = startLine + oldLines;
+        final int delta = newLines - oldLines;
+
+        final List<Range> composed = new ArrayList<>(ranges.size() + 2);
+        for (int i = 0; i < ranges.size(); i++) {
+            final Range range = ranges.get(i);
+            final int end = i + 1 < ranges.size() ? ranges.get(i + 1).from() : Integer.MAX_VALUE;
+            if (range.moved()) {
+                append(composed, range.from(), end, true, mapEdit(range.value(), startLine, lastSpannedLine, delta));
+                continue;
+            }
+
+            // The range maps to its lines shifted by value: split it where the edit thresholds fall
+            final int shift = range.value();
+            final int firstSpanned = Math.max(range.from(), startLine - shift);
+            final int firstBelow = Math.max(range.from(), lastSpannedLine + 1 - shift);
+            append(composed, range.from(), Math.min(end, firstSpanned), false, shift);
+            append(composed, firstSpanned, Math.min(end, firstBelow), true, startLine);
+            append(composed, firstBelow, end, false, shift + delta);
+        }
+        ranges.clear();
+        ranges.addAll(composed);
+    }
+
+    /**
+     * @return the line after every edit of a debt that was on line before them
+     */
+    int map(final int line) {
+        int low = 0;
+        int high = ranges.size() - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (ranges.get(mid).from() <= line) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        final Range range = ranges.get(low);
+        return range.moved() ? range.value() : line + range.value();
+    }
+
+    /**
+     * @return the first line moved by the edits, -1 when no line moves
+     */
+    int firstMovedLine() {
+        for (Range range : ranges) {
+            if (range.moved() || range.value() != 0) return range.from();
+        }
+        return -1;
+    }
+
+    private static int mapEdit(final int line, final int startLine, final int lastSpannedLine, final int delta) {
+        if (line < startLine) return line;
+        if (line <= lastSpannedLine) return startLine;
+        return line + delta;
+    }
+
+    private static void append(final List<Range> ranges, final int from, final int end, final boolean moved, final int value) {
+        if (from >= end) return;
+
+        Range range = new Range(from, moved, value);
+        if (moved && end - from == 1) {
+            // A single line moved to a line is a shift, which may merge with its neighbours
+            range = new Range(from, false, value - from);
+        }
+        if (!ranges.isEmpty()) {
+            final Range last = ranges.get(ranges.size() - 1);
+            if (last.moved() == range.moved() && last.value() == range.value()) return;
+        }
+        ranges.add(range);
+    }
+
+    /**
+     * @param from  first original line of the range
+     * @param moved true when every line of the range is moved to value, false when they are shifted by value
+     */
+    private record Range(int from, boolean moved, int value) {
+    }
+}
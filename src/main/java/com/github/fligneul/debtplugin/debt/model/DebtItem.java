@@ -7,8 +7,11 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DebtItem {
+    private static final AtomicLong REVISIONS = new AtomicLong();
+
     private final String id;
     private final String file;
     private final int line;
@@ -26,11 +29,13 @@ public class DebtItem {
     private final String jira;
     // Maven current module identifier (groupId:artifactId). Empty when unknown.
     private final String currentModule;
-    // Links to other debts keyed by target debt id with a list of relationships
+    // Links to other debts keyed by target debt id with a list of relationships, immutable (see DebtLinks)
     private final Map<String, Relationship> links;
     private final String type;
     private final long creationDate;
     private final long updateDate;
+    // Changes each time a builder actually modifies the content, never persisted (see equals)
+    private final transient long revision;
 
     // No-args constructor for serializers (e.g., Gson)
     public DebtItem() {
@@ -49,36 +54,40 @@ public class DebtItem {
         this.comment = "";
         this.estimation = 0;
         this.currentModule = "";
-        this.links = new LinkedHashMap<>();
+        this.links = DebtLinks.EMPTY;
         this.jira = "";
         this.type = "";
         this.creationDate = Instant.now().getEpochSecond();
         this.updateDate = Instant.now().getEpochSecond();
+        this.revision = REVISIONS.incrementAndGet();
     }
 
     private DebtItem(final Builder builder) {
         this.id = builder.id != null && !builder.id.isBlank() ? builder.id : UUID.randomUUID().toString();
+        // Values shared by many debts are pooled, see DebtStringPool. Files are nearly all distinct: they would fill the
+        // pool for nothing, and copies of a debt share its file instance anyway
         this.file = getOrDefault(builder.file, "");
         this.line = builder.line;
         this.title = getOrDefault(builder.title, "");
         this.description = getOrDefault(builder.description, "");
-        this.username = getOrDefault(builder.username, "");
+        this.username = DebtStringPool.intern(getOrDefault(builder.username, ""));
         this.wantedLevel = builder.wantedLevel;
         this.complexity = getOrDefault(builder.complexity, Complexity.Easy);
         this.status = getOrDefault(builder.status, Status.Submitted);
-        this.priority = getOrDefault(builder.priority, "");
+        this.priority = DebtStringPool.intern(getOrDefault(builder.priority, ""));
         this.risk = getOrDefault(builder.risk, Risk.None);
-        this.targetVersion = getOrDefault(builder.targetVersion, "");
+        this.targetVersion = DebtStringPool.intern(getOrDefault(builder.targetVersion, ""));
         this.comment = getOrDefault(builder.comment, "");
         this.estimation = builder.estimation;
-        this.currentModule = getOrDefault(builder.currentModule, "");
-        this.links = builder.links == null
-                ? new LinkedHashMap<>()
-                : new LinkedHashMap<>(builder.links);
+        this.currentModule = DebtStringPool.intern(getOrDefault(builder.currentModule, ""));
+        this.links = DebtLinks.of(builder.links);
         this.jira = getOrDefault(builder.jira, "");
-        this.type = getOrDefault(builder.type, "");
+        this.type = DebtStringPool.intern(getOrDefault(builder.type, ""));
         this.creationDate = builder.createDate;
         this.updateDate = builder.updateDate;
+        this.revision = builder.source != null && !builder.changed
+                ? builder.source.revision
+                : REVISIONS.incrementAndGet();
     }
 
     private String getOrDefault(String value, String defaultValue) {
@@ -122,11 +131,22 @@ public class DebtItem {
         return id;
     }
 
+    /**
+     * @return a modifiable copy of the links
+     */
     @NotNull
     public Map<String, Relationship> getLinks() {
         return new LinkedHashMap<>(links);
     }
 
+    /**
+     * @return the links themselves, unmodifiable: avoids the copy of {@link #getLinks()} for read-only use
+     */
+    @NotNull
+    public Map<String, Relationship> getLinksView() {
+        return links;
+    }
+
     @NotNull
     public String getFile() {
         return file;
@@ -209,11 +229,31 @@ public class DebtItem {
         return updateDate;
     }
 
+    /**
+     * @return the revision of the content of this debt: a copy built without any change keeps the same revision
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Two debts are equal when they have the same id and revision, i.e. one is an unchanged copy of the other.
+     * Use {@link #hasSameContent(DebtItem)} to compare debts from different sources.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DebtItem debtItem = (DebtItem) o;
+        return revision == debtItem.revision && id.equals(debtItem.id);
+    }
+
+    /**
+     * Compare all the fields except the dates and the revision, for debts not derived from one another
+     * (e.g. read again from disk).
+     */
+    public boolean hasSameContent(@NotNull DebtItem debtItem) {
+        if (this == debtItem) return true;
         return line == debtItem.line
                 && wantedLevel == debtItem.wantedLevel
                 && estimation == debtItem.estimation
@@ -236,7 +276,7 @@ public class DebtItem {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, file, line, title, description, username, wantedLevel, complexity, status, priority, risk, targetVersion, comment, estimation, currentModule, links, jira, type);
+        return id.hashCode();
     }
 
     @Override
@@ -267,6 +307,9 @@ public class DebtItem {
 
     public static class Builder {
         private final boolean isUpdateInProgress;
+        // Debt copied by toBuilder() and whether a field has been set to a different value since
+        private final DebtItem source;
+        private boolean changed;
         private String id;
         private String file;
         private int line;
@@ -291,15 +334,18 @@ public class DebtItem {
         public Builder() {
             createDate = Instant.now().getEpochSecond();
             this.isUpdateInProgress = true;
+            this.source = null;
         }
 
         public Builder(boolean isUpdateInProgress) {
             createDate = Instant.now().getEpochSecond();
             this.isUpdateInProgress = isUpdateInProgress;
+            this.source = null;
         }
 
         public Builder(DebtItem item) {
             this.isUpdateInProgress = true;
+            this.source = item;
             this.id = item.id;
             this.file = item.file;
             this.line = item.line;
@@ -323,101 +369,121 @@ public class DebtItem {
         }
 
         public Builder withId(final String id) {
+            changed |= !Objects.equals(this.id, id);
             this.id = id;
             return builder();
         }
 
         public Builder withLinks(final Map<String, Relationship> links) {
+            changed |= !Objects.equals(this.links, links);
             this.links = links;
             return builder();
         }
 
         public Builder withFile(final String file) {
+            changed |= !Objects.equals(this.file, file);
             this.file = file;
             return builder();
         }
 
         public Builder withLine(final int line) {
+            changed |= this.line != line;
             this.line = line;
             return builder();
         }
 
         public Builder withTitle(final String title) {
+            changed |= !Objects.equals(this.title, title);
             this.title = title;
             return builder();
         }
 
         public Builder withDescription(final String description) {
+            changed |= !Objects.equals(this.description, description);
             this.description = description;
             return builder();
         }
 
         public Builder withUsername(final String username) {
+            changed |= !Objects.equals(this.username, username);
             this.username = username;
             return builder();
         }
 
         public Builder withWantedLevel(final int wantedLevel) {
+            changed |= this.wantedLevel != wantedLevel;
             this.wantedLevel = wantedLevel;
             return builder();
         }
 
         public Builder withComplexity(final Complexity complexity) {
+            changed |= !Objects.equals(this.complexity, complexity);
             this.complexity = complexity;
             return builder();
         }
 
         public Builder withStatus(final Status status) {
+            changed |= !Objects.equals(this.status, status);
             this.status = status;
             return builder();
         }
 
         public Builder withPriority(final String priority) {
+            changed |= !Objects.equals(this.priority, priority);
             this.priority = priority;
             return builder();
         }
 
         public Builder withRisk(final Risk risk) {
+            changed |= !Objects.equals(this.risk, risk);
             this.risk = risk;
             return builder();
         }
 
         public Builder withTargetVersion(final String targetVersion) {
+            changed |= !Objects.equals(this.targetVersion, targetVersion);
             this.targetVersion = targetVersion;
             return builder();
         }
 
         public Builder withComment(final String comment) {
+            changed |= !Objects.equals(this.comment, comment);
             this.comment = comment;
             return builder();
         }
 
         public Builder withEstimation(final int estimation) {
+            changed |= this.estimation != estimation;
             this.estimation = estimation;
             return builder();
         }
 
         public Builder withCurrentModule(final String currentModule) {
+            changed |= !Objects.equals(this.currentModule, currentModule);
             this.currentModule = currentModule;
             return builder();
         }
 
         public Builder withJira(final String jira) {
+            changed |= !Objects.equals(this.jira, jira);
             this.jira = jira;
             return builder();
         }
 
         public Builder withType(final String type) {
+            changed |= !Objects.equals(this.type, type);
             this.type = type;
             return builder();
         }
 
         public Builder withCreateDate(final long createDate) {
+            changed |= this.createDate != createDate;
             this.createDate = createDate;
             return builder();
         }
 
         public Builder withUpdateDate(final long updateDate) {
+            changed |= this.updateDate != updateDate;
             this.updateDate = updateDate;
             return this;
         }
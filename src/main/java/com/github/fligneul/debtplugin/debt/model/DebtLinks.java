@@ -0,0 +1,98 @@
+package com.github.fligneul.debtplugin.debt.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable links of a debt, keyed by target debt id, in insertion order.
+ * Most debts have no or a few links: they are kept in two small arrays scanned on lookup, and every debt without
+ * links shares {@link #EMPTY}. Being immutable, an instance is shared as is by the copies of a debt.
+ */
+final class DebtLinks extends AbstractMap<String, Relationship> {
+    static final DebtLinks EMPTY = new DebtLinks(new String[0], new Relationship[0]);
+
+    private final String[] keys;
+    private final Relationship[] values;
+
+    private DebtLinks(final String[] keys, final Relationship[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    static DebtLinks of(@Nullable final Map<String, Relationship> links) {
+        if (links == null || links.isEmpty()) return EMPTY;
+        if (links instanceof DebtLinks debtLinks) return debtLinks;
+
+        final String[] keys = new String[links.size()];
+        final Relationship[] values = new Relationship[links.size()];
+        int i = 0;
+        for (Map.Entry<String, Relationship> link : links.entrySet()) {
+            keys[i] = link.getKey();
+            values[i] = link.getValue();
+            i++;
+        }
+        return new DebtLinks(keys, values);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Relationship get(final Object key) {
+        final int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, Relationship>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Relationship>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Relationship> next() {
+                        if (next >= keys.length) throw new NoSuchElementException();
+                        final Entry<String, Relationship> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+                        next++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    private int indexOf(final Object key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (Objects.equals(keys[i], key)) return i;
+        }
+        return -1;
+    }
+}
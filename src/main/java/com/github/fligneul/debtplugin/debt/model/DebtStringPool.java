@@ -0,0 +1,41 @@
+package com.github.fligneul.debtplugin.debt.model;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded pool of the values repeated across debts (username, priority, type, version...), so equal values share a
+ * single instance whatever the number of debts. Once full, new values are returned as is.
+ * <p>
+ * The pool is shared by all the projects and never evicts: only values taken from a small set belong in it.
+ */
+public final class DebtStringPool {
+    private static final int MAX_SIZE = 16 * 1024;
+    // Longer values are unlikely to be repeated
+    private static final int MAX_LENGTH = 512;
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private DebtStringPool() {
+    }
+
+    /**
+     * @return the pooled instance equal to value, or value itself when it is not pooled
+     */
+    public static String intern(@Nullable final String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return value;
+        }
+
+        final String pooled = POOL.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (POOL.size() >= MAX_SIZE) {
+            return value;
+        }
+        final String previous = POOL.putIfAbsent(value, value);
+        return previous != null ? previous : value;
+    }
+}
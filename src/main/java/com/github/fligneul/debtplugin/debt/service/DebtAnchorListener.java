@@ -0,0 +1,21 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import java.util.Set;
+
+/**
+ * Published by {@link DebtAnchorService} once the anchors of the open documents are in sync with the debts, so views
+ * drawing the anchored lines never read them before.
+ */
+public interface DebtAnchorListener {
+    /**
+     * The debts have been reloaded: every document must be redrawn.
+     */
+    void anchorsReset();
+
+    /**
+     * The debts of the given files changed.
+     *
+     * @param fileKeys keys of the changed files, see {@link DebtPathService#fileKey(String, String)}
+     */
+    void anchorsChanged(Set<String> fileKeys);
+}
@@ -0,0 +1,330 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.RangeMarker;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileDocumentManagerListener;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.Alarm;
+import com.intellij.util.messages.Topic;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Anchors the debts of the files open in an editor to document range markers, so their positions follow the edits
+ * without any work per keystroke. The moved lines are written back to the debts in one batch when the document is
+ * saved, when its editor is closed, or once typing pauses. Views drawing the debt lines of open documents follow
+ * {@link #TOPIC}, published once the anchors are in sync with the debts.
+ * <p>
+ * Documents of closed files are still handled by {@link com.github.fligneul.debtplugin.debt.listener.DebtDocumentListener}.
+ */
+@Service(Service.Level.PROJECT)
+public final class DebtAnchorService implements Disposable {
+    public static final Topic<DebtAnchorListener> TOPIC = Topic.create("Debt Anchors Changed", DebtAnchorListener.class);
+    private static final Logger LOG = Logger.getInstance(DebtAnchorService.class);
+    // Pause in typing after which the moved lines are written back
+    private static final int IDLE_FLUSH_MS = 2000;
+
+    private final Project project;
+    private final DebtService debtService;
+    private final DebtPathService pathService;
+    private final Map<Document, TrackedDocument> trackedByDocument = new ConcurrentHashMap<>();
+    private final Alarm flushAlarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, this);
+
+    public DebtAnchorService(@NotNull Project project) {
+        this.project = project;
+        this.debtService = project.getService(DebtService.class);
+        this.pathService = project.getService(DebtPathService.class);
+
+        project.getMessageBus().connect(this).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, new FileEditorManagerListener() {
+            @Override
+            public void fileOpened(@NotNull FileEditorManager source, @NotNull VirtualFile file) {
+                track(file);
+            }
+
+            @Override
+            public void fileClosed(@NotNull FileEditorManager source, @NotNull VirtualFile file) {
+                if (!source.isFileOpen(file)) {
+                    untrack(file);
+                }
+            }
+        });
+        ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(FileDocumentManagerListener.TOPIC, new FileDocumentManagerListener() {
+            @Override
+            public void beforeDocumentSaving(@NotNull Document document) {
+                final TrackedDocument tracked = trackedByDocument.get(document);
+                if (tracked != null) {
+                    // Saving runs in a write action: write back once it is over
+                    ApplicationManager.getApplication().invokeLater(() -> flush(tracked), project.getDisposed());
+                }
+            }
+        });
+        project.getMessageBus().connect(this).subscribe(DebtService.TOPIC, new DebtServiceListener() {
+            @Override
+            public void refresh() {
+                onEdt(() -> {
+                    trackOpenFiles();
+                    trackedByDocument.values().forEach(DebtAnchorService.this::resync);
+                    project.getMessageBus().syncPublisher(TOPIC).anchorsReset();
+                });
+            }
+
+            @Override
+            public void debtsChanged(DebtChangeEvent event) {
+                final Set<String> fileKeys = new HashSet<>();
+                for (DebtChange change : event.getChanges()) {
+                    addFileKey(fileKeys, change.getRepoRoot(), change.getOldItem());
+                    addFileKey(fileKeys, change.getRepoRoot(), change.getNewItem());
+                }
+                onEdt(() -> {
+                    for (TrackedDocument tracked : trackedByDocument.values()) {
+                        final String fileKey = pathService.fileKeyOfAbsolutePath(tracked.path());
+                        if (fileKey != null && fileKeys.contains(fileKey)) {
+                            resync(tracked);
+                        }
+                    }
+                    project.getMessageBus().syncPublisher(TOPIC).anchorsChanged(fileKeys);
+                });
+            }
+        });
+    }
+
+    /**
+     * @return true when the debts of the document follow its edits through range markers
+     */
+    public boolean isTracked(@NotNull Document document) {
+        return trackedByDocument.containsKey(document);
+    }
+
+    /**
+     * Visit the debts anchored in the document with their current 1-based line.
+     *
+     * @return false when the document is not tracked, nothing being visited
+     */
+    public boolean forEachAnchoredDebt(@NotNull Document document, @NotNull ObjIntConsumer<DebtItem> consumer) {
+        final TrackedDocument tracked = trackedByDocument.get(document);
+        if (tracked == null) return false;
+
+        for (Anchor anchor : tracked.anchors.values()) {
+            consumer.accept(anchor.debtItem(), anchor.line(document));
+        }
+        return true;
+    }
+
+    /**
+     * Visit the debts of a document with their current 1-based line: the marker lines when it is tracked, the stored
+     * lines otherwise.
+     */
+    public void forEachDebt(@NotNull Document document, @NotNull String absolutePath, @NotNull ObjIntConsumer<DebtItem> consumer) {
+        if (forEachAnchoredDebt(document, consumer)) return;
+
+        for (DebtItem debtItem : debtService.getLineIndex(absolutePath).all()) {
+            consumer.accept(debtItem, debtItem.getLine());
+        }
+    }
+
+    /**
+     * Write the moved lines of every tracked document back to the debts.
+     */
+    public void flushAll() {
+        flushAlarm.cancelAllRequests();
+        trackedByDocument.values().forEach(this::flush);
+    }
+
+    @Override
+    public void dispose() {
+        // Project is closing: moves not written back yet would be lost
+        try {
+            flushAll();
+        } catch (Exception e) {
+            LOG.warn("Failed to write back the debt lines on close: " + e.getMessage(), e);
+        }
+        trackedByDocument.values().forEach(this::release);
+        trackedByDocument.clear();
+    }
+
+    private void trackOpenFiles() {
+        for (VirtualFile file : FileEditorManager.getInstance(project).getOpenFiles()) {
+            track(file);
+        }
+    }
+
+    private void track(final VirtualFile file) {
+        final Document document = FileDocumentManager.getInstance().getDocument(file);
+        if (document == null || trackedByDocument.containsKey(document)) return;
+
+        final TrackedDocument tracked = new TrackedDocument(document, file);
+        Disposer.register(this, tracked.disposable);
+        document.addDocumentListener(new DocumentListener() {
+            @Override
+            public void documentChanged(@NotNull DocumentEvent event) {
+                onDocumentChanged(tracked, event);
+            }
+        }, tracked.disposable);
+        trackedByDocument.put(document, tracked);
+        resync(tracked);
+        if (LOG.isDebugEnabled()) LOG.debug("Anchored %s debt(s) of %s".formatted(tracked.anchors.size(), tracked.path()));
+    }
+
+    private void untrack(final VirtualFile file) {
+        final Document document = FileDocumentManager.getInstance().getCachedDocument(file);
+        final TrackedDocument tracked = document != null ? trackedByDocument.get(document) : null;
+        if (tracked == null) return;
+
+        flush(tracked);
+        trackedByDocument.remove(document);
+        release(tracked);
+    }
+
+    private void release(final TrackedDocument tracked) {
+        tracked.anchors.values().forEach(anchor -> anchor.marker().dispose());
+        tracked.anchors.clear();
+        Disposer.dispose(tracked.disposable);
+    }
+
+    private void onDocumentChanged(final TrackedDocument tracked, final DocumentEvent event) {
+        // Edits within a line move no debt
+        if (!StringUtil.containsLineBreak(event.getOldFragment()) && !StringUtil.containsLineBreak(event.getNewFragment())) {
+            return;
+        }
+
+        final Document document = tracked.document;
+        for (Map.Entry<String, Anchor> entry : tracked.anchors.entrySet()) {
+            final Anchor anchor = entry.getValue();
+            if (!anchor.marker().isValid()) {
+                // The debt line has been deleted: attach it to the start of the changed region
+                final int line = document.getLineNumber(Math.min(event.getOffset(), document.getTextLength())) + 1;
+                entry.setValue(anchor(document, anchor.debtItem(), line, anchor.anchoredLine()));
+            }
+        }
+
+        flushAlarm.cancelAllRequests();
+        flushAlarm.addRequest(this::flushAll, IDLE_FLUSH_MS);
+    }
+
+    /**
+     * Align the anchors of the document with the stored debts of its file.
+     */
+    private void resync(final TrackedDocument tracked) {
+        final Document document = tracked.document;
+        final Set<String> ids = new HashSet<>();
+        for (DebtItem debtItem : debtService.getLineIndex(tracked.path()).all()) {
+            ids.add(debtItem.getId());
+            final Anchor anchor = tracked.anchors.get(debtItem.getId());
+            if (anchor == null) {
+                tracked.anchors.put(debtItem.getId(), anchor(document, debtItem, debtItem.getLine(), -1));
+            } else if (debtItem.getLine() == anchor.debtItem().getLine()) {
+                tracked.anchors.put(debtItem.getId(), new Anchor(debtItem, anchor.marker(), anchor.anchoredLine()));
+            } else if (debtItem.getLine() == anchor.line(document)) {
+                // Written back from the marker: it is now the reference line
+                tracked.anchors.put(debtItem.getId(), new Anchor(debtItem, anchor.marker(), debtItem.getLine()));
+            } else {
+                // Moved elsewhere (table edit, reload from disk): follow the stored line
+                anchor.marker().dispose();
+                tracked.anchors.put(debtItem.getId(), anchor(document, debtItem, debtItem.getLine(), -1));
+            }
+        }
+
+        tracked.anchors.entrySet().removeIf(entry -> {
+            if (ids.contains(entry.getKey())) return false;
+            entry.getValue().marker().dispose();
+            return true;
+        });
+    }
+
+    private void flush(final TrackedDocument tracked) {
+        if (!trackedByDocument.containsKey(tracked.document)) return;
+
+        final List<DebtChange> changes = new ArrayList<>();
+        for (Anchor anchor : tracked.anchors.values()) {
+            final int line = anchor.line(tracked.document);
+            if (line != anchor.anchoredLine() && line != anchor.debtItem().getLine()) {
+                final DebtItem updated = anchor.debtItem().toBuilder()
+                        .withLine(line)
+                        .build();
+                changes.add(DebtChange.update(anchor.debtItem(), updated));
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            LOG.info("DebtAnchorService: writing back %s moved debt line(s) for %s".formatted(changes.size(), tracked.path()));
+            debtService.apply(changes);
+        }
+    }
+
+    /**
+     * @param anchoredLine line the debt is considered anchored on, -1 to use the line of the created marker
+     */
+    private static Anchor anchor(final Document document, final DebtItem debtItem, final int line, final int anchoredLine) {
+        final int lineCount = document.getLineCount();
+        // Stored lines beyond the end of the document are anchored on the last line
+        final int clampedLine = Math.max(1, Math.min(line, lineCount));
+        final int offset = lineCount == 0 ? 0 : document.getLineStartOffset(clampedLine - 1);
+        final RangeMarker marker = document.createRangeMarker(offset, offset);
+        return new Anchor(debtItem, marker, anchoredLine < 0 ? clampedLine : anchoredLine);
+    }
+
+    private void addFileKey(final Set<String> fileKeys, @Nullable final String repoRoot, @Nullable final DebtItem debtItem) {
+        if (repoRoot == null || debtItem == null) return;
+        fileKeys.add(pathService.fileKey(repoRoot, debtItem.getFile()));
+    }
+
+    private void onEdt(final Runnable runnable) {
+        if (ApplicationManager.getApplication().isDispatchThread()) {
+            runnable.run();
+        } else {
+            ApplicationManager.getApplication().invokeLater(runnable, project.getDisposed());
+        }
+    }
+
+    /**
+     * @param anchoredLine line of the marker when the debt line was last known to match it
+     */
+    private record Anchor(DebtItem debtItem, RangeMarker marker, int anchoredLine) {
+        int line(final Document document) {
+            if (!marker.isValid()) return anchoredLine;
+            return document.getLineNumber(marker.getStartOffset()) + 1;
+        }
+    }
+
+    private static final class TrackedDocument {
+        private final Document document;
+        private final VirtualFile file;
+        private final Disposable disposable;
+        // Anchors by debt id
+        private final Map<String, Anchor> anchors = new ConcurrentHashMap<>();
+
+        private TrackedDocument(final Document document, final VirtualFile file) {
+            this.document = document;
+            this.file = file;
+            this.disposable = Disposer.newDisposable("Debt anchors of " + file.getPath());
+        }
+
+        /**
+         * @return the current path of the file, which changes when an open file is renamed or moved
+         */
+        private String path() {
+            return file.getPath();
+        }
+    }
+}
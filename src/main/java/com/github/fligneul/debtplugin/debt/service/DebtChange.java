@@ -0,0 +1,82 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A single mutation to apply through {@link DebtService#apply(java.util.Collection)}.
+ */
+public final class DebtChange {
+    public enum Type {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+
+    private final Type type;
+    // Item currently stored (null for ADD)
+    private final DebtItem oldItem;
+    // Item to store (null for REMOVE)
+    private final DebtItem newItem;
+    // Root of the repository receiving the item (ADD only, set for every change of a DebtChangeEvent)
+    private final String repoRoot;
+
+    private DebtChange(final Type type, final DebtItem oldItem, final DebtItem newItem, final String repoRoot) {
+        this.type = type;
+        this.oldItem = oldItem;
+        this.newItem = newItem;
+        this.repoRoot = repoRoot;
+    }
+
+    public static DebtChange add(@NotNull final DebtItem debtItem, @NotNull final String repoRoot) {
+        return new DebtChange(Type.ADD, null, Objects.requireNonNull(debtItem), Objects.requireNonNull(repoRoot));
+    }
+
+    public static DebtChange update(@NotNull final DebtItem oldDebtItem, @NotNull final DebtItem newDebtItem) {
+        return new DebtChange(Type.UPDATE, Objects.requireNonNull(oldDebtItem), Objects.requireNonNull(newDebtItem), null);
+    }
+
+    public static DebtChange remove(@NotNull final DebtItem debtItem) {
+        return new DebtChange(Type.REMOVE, Objects.requireNonNull(debtItem), null, null);
+    }
+
+    /**
+     * Change as it has been applied: the old item is the stored one and the repository root is always known.
+     */
+    static DebtChange applied(final Type type, @Nullable final DebtItem oldItem, @Nullable final DebtItem newItem, @NotNull final String repoRoot) {
+        return new DebtChange(type, oldItem, newItem, repoRoot);
+    }
+
+    @NotNull
+    public Type getType() {
+        return type;
+    }
+
+    @Nullable
+    public DebtItem getOldItem() {
+        return oldItem;
+    }
+
+    @Nullable
+    public DebtItem getNewItem() {
+        return newItem;
+    }
+
+    @Nullable
+    public String getRepoRoot() {
+        return repoRoot;
+    }
+
+    @Override
+    public String toString() {
+        return "DebtChange{" +
+                "type=" + type +
+                ", oldItem=" + oldItem +
+                ", newItem=" + newItem +
+                ", repoRoot='" + repoRoot + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.model.Repository;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Changes applied by a single {@link DebtService#apply(java.util.Collection)} call, published on {@link DebtService#TOPIC}.
+ * Old items are the stored ones (not the possibly outdated copies given by the caller) and every change carries
+ * the root of its repository.
+ */
+public final class DebtChangeEvent {
+    private final List<DebtChange> changes;
+    private final Set<Repository> repositories;
+
+    DebtChangeEvent(@NotNull final List<DebtChange> changes, @NotNull final Set<Repository> repositories) {
+        this.changes = List.copyOf(changes);
+        this.repositories = Set.copyOf(repositories);
+    }
+
+    @NotNull
+    public List<DebtChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return the repositories whose debts changed
+     */
+    @NotNull
+    public Set<Repository> getRepositories() {
+        return repositories;
+    }
+
+    @NotNull
+    public Set<String> getAddedIds() {
+        return idsOf(DebtChange.Type.ADD, DebtChange::getNewItem);
+    }
+
+    @NotNull
+    public Set<String> getUpdatedIds() {
+        return idsOf(DebtChange.Type.UPDATE, DebtChange::getNewItem);
+    }
+
+    @NotNull
+    public Set<String> getRemovedIds() {
+        return idsOf(DebtChange.Type.REMOVE, DebtChange::getOldItem);
+    }
+
+    private Set<String> idsOf(final DebtChange.Type type, final Function<DebtChange, DebtItem> itemGetter) {
+        final Set<String> ids = new LinkedHashSet<>();
+        for (DebtChange change : changes) {
+            if (change.getType() == type) {
+                ids.add(Objects.requireNonNull(itemGetter.apply(change)).getId());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return "DebtChangeEvent{" +
+                "changes=" + changes.size() +
+                ", repositories=" + repositories +
+                '}';
+    }
+}
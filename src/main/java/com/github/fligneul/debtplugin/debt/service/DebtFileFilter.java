@@ -0,0 +1,80 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Bloom filter over the names of the files having debts, so the hot paths (gutter, document edits) can tell that a
+ * file has no debts from its path alone: no normalization, repository lookup nor allocation.
+ * A negative answer is exact; a positive one still requires the lookup of the file key.
+ */
+final class DebtFileFilter {
+    static final DebtFileFilter EMPTY = new DebtFileFilter(new long[1]);
+
+    // About 1% of false positives with two probes
+    private static final int BITS_PER_FILE = 16;
+
+    private final long[] bits;
+    private final int mask;
+
+    private DebtFileFilter(final long[] bits) {
+        this.bits = bits;
+        this.mask = bits.length * Long.SIZE - 1;
+    }
+
+    /**
+     * @param fileKeys keys of the files having debts, see {@link DebtPathService#fileKey(String, String)}
+     */
+    static DebtFileFilter of(@NotNull final Collection<String> fileKeys) {
+        if (fileKeys.isEmpty()) return EMPTY;
+
+        final int size = Integer.highestOneBit(Math.max(Long.SIZE, fileKeys.size() * BITS_PER_FILE - 1)) << 1;
+        final DebtFileFilter filter = new DebtFileFilter(new long[size / Long.SIZE]);
+        for (String fileKey : fileKeys) {
+            final int hash = nameHash(fileKey, Math.max(fileKey.lastIndexOf('/'), fileKey.lastIndexOf('|')) + 1);
+            filter.set(hash);
+            filter.set(secondProbe(hash));
+        }
+        return filter;
+    }
+
+    /**
+     * @param path absolute path of a file, with any separator
+     * @return false when the file has no debts for sure
+     */
+    boolean mightContain(@NotNull final String path) {
+        final int nameStart = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1;
+        for (int i = nameStart; i < path.length(); i++) {
+            // File keys fold the case of the whole string: a non ASCII name may not fold the same char by char
+            if (path.charAt(i) > 0x7F) return true;
+        }
+
+        final int hash = nameHash(path, nameStart);
+        return isSet(hash) && isSet(secondProbe(hash));
+    }
+
+    private static int nameHash(final String path, final int nameStart) {
+        int hash = 0;
+        for (int i = nameStart; i < path.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(path.charAt(i));
+        }
+        // Spread the low bits, which select the bit
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int secondProbe(final int hash) {
+        final int probe = hash * 0x9E3779B9;
+        return probe ^ (probe >>> 15);
+    }
+
+    private void set(final int hash) {
+        final int bit = hash & mask;
+        bits[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean isSet(final int hash) {
+        final int bit = hash & mask;
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+}
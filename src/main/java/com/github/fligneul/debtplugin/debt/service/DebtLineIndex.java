@@ -0,0 +1,107 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable line -> debts index of a single file.
+ * Items are kept sorted by line in parallel arrays so lookups are binary searches.
+ * Updates return a new instance, readers can keep using the one they hold without locking.
+ */
+public final class DebtLineIndex {
+    public static final DebtLineIndex EMPTY = new DebtLineIndex(new int[0], new DebtItem[0]);
+
+    private final int[] lines;
+    private final DebtItem[] items;
+
+    private DebtLineIndex(final int[] lines, final DebtItem[] items) {
+        this.lines = lines;
+        this.items = items;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    /**
+     * @return the debts located on the given 1-based line
+     */
+    @NotNull
+    public List<DebtItem> onLine(final int line) {
+        final int from = firstIndexOf(line);
+        int to = from;
+        while (to < lines.length && lines[to] == line) {
+            to++;
+        }
+        return from == to ? List.of() : Collections.unmodifiableList(Arrays.asList(items).subList(from, to));
+    }
+
+    /**
+     * @return the debts located on the given 1-based line or below it, sorted by line
+     */
+    @NotNull
+    public List<DebtItem> fromLine(final int line) {
+        final int from = firstIndexOf(line);
+        return from == items.length ? List.of() : Collections.unmodifiableList(Arrays.asList(items).subList(from, items.length));
+    }
+
+    @NotNull
+    public List<DebtItem> all() {
+        return Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    DebtLineIndex with(@NotNull final DebtItem debtItem) {
+        // Inserted after the items already on the same line to keep the storage order
+        final int position = firstIndexOf(debtItem.getLine() + 1);
+
+        final int[] newLines = new int[lines.length + 1];
+        final DebtItem[] newItems = new DebtItem[items.length + 1];
+        System.arraycopy(lines, 0, newLines, 0, position);
+        System.arraycopy(items, 0, newItems, 0, position);
+        newLines[position] = debtItem.getLine();
+        newItems[position] = debtItem;
+        System.arraycopy(lines, position, newLines, position + 1, lines.length - position);
+        System.arraycopy(items, position, newItems, position + 1, items.length - position);
+
+        return new DebtLineIndex(newLines, newItems);
+    }
+
+    DebtLineIndex without(@NotNull final String debtId) {
+        int position = -1;
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].getId().equals(debtId)) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) return this;
+        if (items.length == 1) return EMPTY;
+
+        final int[] newLines = new int[lines.length - 1];
+        final DebtItem[] newItems = new DebtItem[items.length - 1];
+        System.arraycopy(lines, 0, newLines, 0, position);
+        System.arraycopy(items, 0, newItems, 0, position);
+        System.arraycopy(lines, position + 1, newLines, position, lines.length - position - 1);
+        System.arraycopy(items, position + 1, newItems, position, items.length - position - 1);
+
+        return new DebtLineIndex(newLines, newItems);
+    }
+
+    private int firstIndexOf(final int line) {
+        int low = 0;
+        int high = lines.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (lines[mid] < line) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversions between absolute and repository-relative paths, shared by DebtService, the listeners and the gutter.
+ * <p>
+ * File keys identify a file whatever the form of its path (absolute or repo-relative, any separator or case). They are
+ * interned: equal keys are the same instance, so comparing or looking them up in a map is a reference or hash check.
+ */
+@Service(Service.Level.PROJECT)
+public final class DebtPathService {
+    private static final int MAX_KEYS = 64 * 1024;
+    private static final int KEY_CACHE_SIZE = 4096;
+
+    private final Project project;
+    private volatile RepositoryRootResolver rootResolver;
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    // Key of recently looked up absolute paths (gutter, document listener), empty when outside the repositories
+    private final Map<String, String> keyByAbsolutePath = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > KEY_CACHE_SIZE;
+        }
+    };
+
+    public DebtPathService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * @return the normalized root of the deepest repository containing the path, empty when there is none
+     */
+    @NotNull
+    public String findRepoRoot(@Nullable String absolutePath) {
+        if (absolutePath == null || absolutePath.isBlank()) return "";
+        return rootResolver().resolve(absolutePath);
+    }
+
+    /**
+     * @param anyPath absolute path, or path relative to root
+     * @param root    repository (or project) root, may be blank
+     * @return the path relative to root with '/' separators, or the normalized absolute path when it is outside root
+     */
+    @NotNull
+    public String toRepoRelative(@Nullable String anyPath, @Nullable String root) {
+        if (anyPath == null) return "";
+        try {
+            final Path path = Paths.get(anyPath);
+            if (root == null || root.isBlank()) {
+                return path.toAbsolutePath().normalize().toString().replace('\\', '/');
+            }
+
+            final Path base = Paths.get(root).toAbsolutePath().normalize();
+            final Path abs = path.isAbsolute() ? path.normalize() : base.resolve(path).normalize();
+            if (abs.startsWith(base)) {
+                return base.relativize(abs).toString().replace('\\', '/');
+            }
+            return abs.toString().replace('\\', '/');
+        } catch (Exception e) {
+            return anyPath.replace('\\', '/');
+        }
+    }
+
+    /**
+     * @param repoRoot root of the repository storing the file
+     * @param anyPath  absolute path, or path relative to repoRoot
+     * @return the normalized absolute path with '/' separators, as used by the VFS
+     */
+    @NotNull
+    public String toAbsolutePath(@NotNull String repoRoot, @NotNull String anyPath) {
+        try {
+            return Paths.get(repoRoot).resolve(anyPath).toAbsolutePath().normalize().toString().replace('\\', '/');
+        } catch (Exception e) {
+            return (repoRoot + "/" + anyPath).replace('\\', '/');
+        }
+    }
+
+    /**
+     * @param repoRoot root of the repository storing the file
+     * @param anyPath  absolute path, or path relative to repoRoot
+     * @return the interned key of the file
+     */
+    @NotNull
+    public String fileKey(@NotNull String repoRoot, @NotNull String anyPath) {
+        String root = repoRoot;
+        String relative;
+        try {
+            final Path base = Paths.get(repoRoot).toAbsolutePath().normalize();
+            final Path path = Paths.get(anyPath);
+            final Path abs = path.isAbsolute() ? path.normalize() : base.resolve(path).normalize();
+            root = base.toString();
+            relative = abs.startsWith(base) ? base.relativize(abs).toString() : abs.toString();
+        } catch (Exception e) {
+            relative = anyPath;
+        }
+        // Case is folded here once, so that lookups never compare paths ignoring case
+        return intern(root + "|" + relative.replace('\\', '/').toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the interned key of the file at this absolute path, null when it is outside the repositories
+     */
+    @Nullable
+    public String fileKeyOfAbsolutePath(@NotNull String absolutePath) {
+        final RepositoryRootResolver resolver = rootResolver();
+        synchronized (keyByAbsolutePath) {
+            final String cached = keyByAbsolutePath.get(absolutePath);
+            if (cached != null) return cached.isEmpty() ? null : cached;
+        }
+
+        final String repoRoot = resolver.resolve(absolutePath);
+        final String key = repoRoot.isEmpty() ? "" : fileKey(repoRoot, absolutePath);
+        synchronized (keyByAbsolutePath) {
+            keyByAbsolutePath.put(absolutePath, key);
+        }
+        return key.isEmpty() ? null : key;
+    }
+
+    private String intern(final String key) {
+        final String interned = keys.get(key);
+        if (interned != null) return interned;
+        if (keys.size() >= MAX_KEYS) return key;
+
+        final String previous = keys.putIfAbsent(key, key);
+        return previous != null ? previous : key;
+    }
+
+    private RepositoryRootResolver rootResolver() {
+        final RepositoriesService repositoriesService = project.getService(RepositoriesService.class);
+        // Read before the list: a concurrent change leaves an outdated count, rebuilt on the next call
+        final long modificationCount = repositoriesService.getModificationCount();
+        RepositoryRootResolver resolver = rootResolver;
+        if (resolver == null || resolver.getModificationCount() != modificationCount) {
+            resolver = new RepositoryRootResolver(modificationCount, repositoriesService.getRepositories());
+            synchronized (keyByAbsolutePath) {
+                // Cached keys depend on the roots
+                keyByAbsolutePath.clear();
+            }
+            rootResolver = resolver;
+        }
+        return resolver;
+    }
+}
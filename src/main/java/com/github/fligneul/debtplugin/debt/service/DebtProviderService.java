@@ -21,14 +21,16 @@ public final class DebtProviderService {
 
 
     public List<DebtItem> currentItems() {
+        // One snapshot for the whole computation: the result is consistent even if debts change meanwhile
+        final DebtSnapshot snapshot = debtService.getSnapshot();
         if (selectedRepositories.isEmpty()) {
-            return debtService.all();
+            return snapshot.all();
         }
 
         return selectedRepositories
                 .stream()
                 .map(Repository::getRepositoryAbsolutePath)
-                .map(debtService::getDebtForRepositoryAbsolutePath)
+                .map(snapshot::getDebtForRepositoryAbsolutePath)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .map(Map.Entry::getValue)
@@ -36,6 +38,15 @@ public final class DebtProviderService {
                 .toList();
     }
 
+    /**
+     * @return true when the debts of the given repository root are part of {@link #currentItems()}
+     */
+    public boolean isDisplayed(final String repoRoot) {
+        return selectedRepositories.isEmpty() || selectedRepositories
+                .stream()
+                .anyMatch(repository -> repository.getRepositoryAbsolutePath().equals(repoRoot));
+    }
+
     public void updateRepositories(final List<Repository> selectedRepositories) {
         this.selectedRepositories = selectedRepositories;
     }
@@ -1,20 +1,38 @@
 package com.github.fligneul.debtplugin.debt.service;
 
 import com.github.fligneul.debtplugin.debt.listener.DebtDocumentListener;
+import com.github.fligneul.debtplugin.debt.listener.DebtFileVfsListener;
 import com.github.fligneul.debtplugin.debt.listener.DebtVfsListener;
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.model.Repository;
+import com.github.fligneul.debtplugin.debt.service.json.DebtBinaryCache;
+import com.github.fligneul.debtplugin.debt.service.json.DebtJournalRecord;
 import com.github.fligneul.debtplugin.debt.service.json.DebtReaderService;
 import com.github.fligneul.debtplugin.debt.service.json.DebtWriterService;
 import com.github.fligneul.debtplugin.debt.settings.DebtSettings;
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.notification.NotificationGroupManager;
 import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.command.CommandListener;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.Topic;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,40 +48,98 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service(Service.Level.PROJECT)
-public final class DebtService {
+public final class DebtService implements Disposable {
     public static final Topic<DebtServiceListener> TOPIC = Topic.create("Debt Service Changed", DebtServiceListener.class);
     public static final Topic<DebtServiceSelectionListener> SELECTION_TOPIC = Topic.create("Select Changed", DebtServiceSelectionListener.class);
 
     private static final Logger LOG = Logger.getInstance(DebtService.class);
+    // Edits made within this window after the first pending one are written together
+    private static final long SAVE_DELAY_MS = 500;
+    // A failed write is retried after SAVE_DELAY_MS, doubled on each consecutive failure up to this delay
+    private static final long SAVE_RETRY_MAX_MS = 60_000;
+    // Repository files read concurrently, bounded to leave cores to the IDE on large workspaces
+    private static final int LOAD_PARALLELISM = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors() / 2));
+    private static final long LOAD_POLL_MS = 100;
+    // Journal mode: a journal past this size is folded into its debt file on the next flush, or after this idle delay
+    private static final long JOURNAL_COMPACTION_BYTES = 1024 * 1024;
+    private static final long JOURNAL_COMPACTION_IDLE_MS = 30_000;
 
     private final Project project;
     private final DebtSettings settings;
+    private final DebtPathService pathService;
     private final DebtWriterService debtWriterService;
     private final DebtReaderService debtReaderService;
-    // Unified storage: key = repository, value = items in that repo
+    private final DebtBinaryCache debtBinaryCache;
+    // Unified storage: key = repository, value = items in that repo. Mutated under this service's lock only,
+    // readers use the published snapshot
     private final Map<Repository, List<DebtItem>> debtsByRepository = new LinkedHashMap<>();
+    private volatile DebtSnapshot snapshot = DebtSnapshot.EMPTY;
+    // False until the first load completes: views show a loading state meanwhile
+    private volatile boolean loaded;
+    // Where each stored debt lives, keyed by debt id: mutations never scan or compare whole items
+    private final Map<String, DebtLocation> debtLocations = new HashMap<>();
+    // Debts of each file sorted by line, keyed by normalized repo root and repo-relative path (see fileKey)
+    private final Map<String, DebtLineIndex> lineIndexByFile = new HashMap<>();
+    // Repositories modified in memory since their JSON file was last written
+    private final Set<Repository> dirtyRepositories = new LinkedHashSet<>();
+    // Repositories whose debt file could not be fully read: writing it would drop the debts not read, so their
+    // changes are kept in memory until the file is read again
+    private final Set<Repository> unreadableRepositories = new HashSet<>();
+    // Single writer thread: dirty repositories are flushed in the background, never on the caller thread
+    private final ScheduledExecutorService saveExecutor = AppExecutorUtil.createBoundedScheduledExecutorService("Debt Save", 1);
+    private final ExecutorService loadExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Debt Load", LOAD_PARALLELISM);
+    // Serializes flushes coming from the save executor and from explicit flushes (close, settings change, reload)
+    private final Object writeLock = new Object();
+    private ScheduledFuture<?> pendingSave;
+    private int consecutiveSaveFailures;
+    // Changes applied while a load reads the disk, replayed on the loaded debts (one list per running load)
+    private final List<List<DebtChange>> changesDuringLoads = new ArrayList<>();
+    // Changes of the dirty repositories that can be appended to their journal, by debt id (journal mode only)
+    private final Map<Repository, Map<String, DebtJournalRecord>> journalByRepository = new HashMap<>();
+    private ScheduledFuture<?> pendingCompaction;
+    // Debt file of each loaded repository, to recognize its VFS events
+    private volatile Map<Path, Repository> repositoryByDebtFile = Map.of();
+    // Size and modification time of the debt files as last written here, so their VFS events do not trigger a reload
+    private final Map<Path, FileStamp> ownWrites = new ConcurrentHashMap<>();
 
     public DebtService(@NotNull Project project) {
         this.project = Objects.requireNonNull(project, "project");
         this.settings = project.getService(DebtSettings.class);
+        this.pathService = project.getService(DebtPathService.class);
         debtWriterService = new DebtWriterService();
         debtReaderService = new DebtReaderService();
+        debtBinaryCache = new DebtBinaryCache(Paths.get(PathManager.getSystemPath(), "debtplugin"));
 
-        loadDebts();
+        // Debts are loaded in background by DebtStartupActivity, never on the thread creating the service
 
         // Listen to document changes to keep debt line numbers in sync with file edits
         try {
-            EditorFactory.getInstance().getEventMulticaster().addDocumentListener(new DebtDocumentListener(project), project);
+            final DebtDocumentListener documentListener = new DebtDocumentListener(project, this);
+            EditorFactory.getInstance().getEventMulticaster().addDocumentListener(documentListener, project);
+            // Line moves are applied once the command is over
+            ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(CommandListener.TOPIC, documentListener);
             LOG.info("DebtService: Document listener registered to update debt line numbers on edits");
         } catch (Throwable t) {
             LOG.warn("Failed to register document listener: " + t.getMessage(), t);
@@ -71,41 +147,39 @@ public final class DebtService {
         // Listen to VFS rename/move to keep debt file paths in sync
         try {
             project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, new DebtVfsListener(project));
+            project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, new DebtFileVfsListener(project));
             LOG.info("DebtService: VFS listener registered to update debt file paths on rename/move");
         } catch (Throwable t) {
             LOG.warn("Failed to register VFS listener: " + t.getMessage(), t);
         }
     }
 
-    public synchronized void add(@NotNull DebtItem debtItem, @NotNull final String repoRoot) {
-        getDebtForRepositoryAbsolutePath(repoRoot)
-                .map(Map.Entry::getValue)
-                .ifPresent(debts -> debts.add(debtItem));
-
-        LOG.info("Added debtItem: file=" + debtItem.getFile() + ":" + debtItem.getLine() +
-                " title=\"" + debtItem.getTitle() + "\"" +
-                " desc=\"" + debtItem.getDescription() + "\"" +
-                " user=" + debtItem.getUsername() +
-                " targetVersion=\"" + debtItem.getTargetVersion() + "\"" +
-                " comment=\"" + debtItem.getComment() + "\"" +
-                " wantedLevel=" + debtItem.getWantedLevel() +
-                " complexity=" + debtItem.getComplexity() +
-                " status=" + debtItem.getStatus() +
-                " priority=" + debtItem.getPriority() +
-                " risk=" + debtItem.getRisk());
-
-        saveDebts(repoRoot);
+    public void add(@NotNull DebtItem debtItem, @NotNull final String repoRoot) {
+        apply(List.of(DebtChange.add(debtItem, repoRoot)));
 
         NotificationGroupManager.getInstance()
                 .getNotificationGroup("Debt Notification Group")
                 .createNotification("New item added", debtItem.getTitle(), NotificationType.INFORMATION)
                 .notify(project);
-
-        refresh();
-        refreshHighlighting();
     }
 
     public Optional<Map.Entry<Repository, List<DebtItem>>> getDebtForRepositoryAbsolutePath(final @NotNull String repoRoot) {
+        return snapshot.getDebtForRepositoryAbsolutePath(repoRoot);
+    }
+
+    /**
+     * @param repoRoot normalized root, as returned by {@link #findRepoRootForAbsolutePath(String)}
+     * @return the loaded repository having this root
+     */
+    public Optional<Repository> findLoadedRepository(@NotNull String repoRoot) {
+        if (repoRoot.isEmpty()) return Optional.empty();
+        return snapshot.getDebtsByRepository().keySet()
+                .stream()
+                .filter(repository -> repoRoot.equals(pathService.findRepoRoot(repository.getRepositoryAbsolutePath())))
+                .findFirst();
+    }
+
+    private Optional<Map.Entry<Repository, List<DebtItem>>> findStoredEntry(final String repoRoot) {
         return debtsByRepository.entrySet()
                 .stream()
                 .filter(entry -> entry.getKey().getRepositoryAbsolutePath().equals(repoRoot))
@@ -124,160 +198,821 @@ public final class DebtService {
         return modules;
     }
 
-    public synchronized void remove(@NotNull DebtItem debtItem) {
-        debtsByRepository.entrySet()
-                .stream()
-                .filter(entry -> entry.getValue().contains(debtItem))
-                .findFirst()
-                .ifPresentOrElse(entry -> {
-                            entry.getValue().removeIf(currentDebtItem -> currentDebtItem.equals(debtItem));
-
-                            LOG.info("Removed debt: file=" + debtItem.getFile() + ":" + debtItem.getLine() +
-                                    " title=\"" + debtItem.getTitle() + "\"" +
-                                    " desc=\"" + debtItem.getDescription() + "\"" +
-                                    " user=" + debtItem.getUsername() +
-                                    " targetVersion=\"" + debtItem.getTargetVersion() + "\"" +
-                                    " comment=\"" + debtItem.getComment() + "\"");
-
-                            saveDebts(entry.getKey().getRepositoryAbsolutePath());
-                        },
-                        () -> LOG.warn("Attempted to remove non-existing debt: file=" + debtItem.getFile() + ":" + debtItem.getLine() +
-                                " title=\"" + debtItem.getTitle() + "\""));
-    }
-
-    public synchronized void update(@NotNull DebtItem oldDebtItem, @NotNull DebtItem newDebtItem) {
-        debtsByRepository.entrySet()
-                .stream()
-                .filter(entry -> entry.getValue().contains(oldDebtItem))
-                .findFirst()
-                .ifPresentOrElse(entry -> update(entry, oldDebtItem, newDebtItem),
-                        () -> LOG.warn("Attempted to update non-existing debt: old=" + oldDebtItem +
-                                " currentList=\"" + debtsByRepository.values()
-                                .stream()
-                                .flatMap(Collection::stream)
-                                .toList() + "\""));
-    }
-
-    public void update(final Map.Entry<Repository, List<DebtItem>> entry, final @NotNull DebtItem oldDebtItem, final @NotNull DebtItem newDebtItem) {
-        if (oldDebtItem.equals(newDebtItem)) {
-            LOG.debug("No update, old an newItem are the same");
-        } else {
-            final List<DebtItem> debts = entry.getValue();
-
-            final int currentIndex = debts.indexOf(oldDebtItem);
-
-            debts.set(currentIndex, newDebtItem);
-
-            LOG.info("Updated debt: " + newDebtItem);
-
-            saveDebts();
+    public void remove(@NotNull DebtItem debtItem) {
+        apply(List.of(DebtChange.remove(debtItem)));
+    }
 
+    public void update(@NotNull DebtItem oldDebtItem, @NotNull DebtItem newDebtItem) {
+        if (apply(List.of(DebtChange.update(oldDebtItem, newDebtItem)))) {
             NotificationGroupManager.getInstance()
                     .getNotificationGroup("Debt Notification Group")
                     .createNotification("Item updated", newDebtItem.getTitle(), NotificationType.INFORMATION)
                     .notify(project);
+        }
+    }
+
+    /**
+     * Apply all the changes under a single lock, then persist, notify listeners and restart highlighting once.
+     *
+     * @return true when at least one change modified the stored debts
+     */
+    public boolean apply(@NotNull Collection<DebtChange> changes) {
+        if (changes.isEmpty()) return false;
+
+        final List<DebtChange> applied = new ArrayList<>();
+        final Set<Repository> repositories = new LinkedHashSet<>();
+        boolean saveQueued = true;
+        synchronized (this) {
+            for (DebtChange change : changes) {
+                final DebtChange appliedChange = applyChange(change);
+                if (appliedChange != null) {
+                    applied.add(appliedChange);
+                    findStoredEntry(appliedChange.getRepoRoot())
+                            .map(Map.Entry::getKey)
+                            .ifPresent(repositories::add);
+                }
+            }
+            if (!applied.isEmpty()) {
+                changesDuringLoads.forEach(recorded -> recorded.addAll(applied));
+                publishSnapshot(repositories);
+                saveQueued = scheduleSave();
+            }
+        }
+
+        if (applied.isEmpty()) {
+            return false;
+        }
+        if (!saveQueued) {
+            // Applied while the project closes (write-back of other services): nothing would write it later
+            flushPendingSaves();
+        }
+
+        if (LOG.isDebugEnabled()) LOG.debug("Applied %s/%s debt change(s)".formatted(applied.size(), changes.size()));
+        notifyDebtsChanged(new DebtChangeEvent(applied, repositories));
+        refreshHighlighting(applied);
+        return true;
+    }
+
+    /**
+     * @return the change as applied (see {@link DebtChangeEvent}), null when it could not be applied
+     */
+    @Nullable
+    private DebtChange applyChange(final DebtChange change) {
+        return switch (change.getType()) {
+            case ADD -> applyAdd(change.getNewItem(), change.getRepoRoot());
+            case UPDATE -> applyUpdate(change.getOldItem(), change.getNewItem());
+            case REMOVE -> applyRemove(change.getOldItem());
+        };
+    }
+
+    private DebtChange applyAdd(final DebtItem debtItem, final String repoRoot) {
+        final Optional<Map.Entry<Repository, List<DebtItem>>> entryOpt = findStoredEntry(repoRoot);
+        if (entryOpt.isEmpty()) {
+            LOG.warn("Attempted to add a debt to an unknown repository: repoRoot=" + repoRoot + " debt=" + debtItem);
+            return null;
+        }
+
+        final List<DebtItem> debts = entryOpt.get().getValue();
+        debtLocations.put(debtItem.getId(), new DebtLocation(entryOpt.get().getKey(), debts.size()));
+        debts.add(debtItem);
+        indexLine(entryOpt.get().getKey(), debtItem);
+        markDirty(entryOpt.get().getKey(), DebtJournalRecord.upsert(debtItem));
+
+        LOG.info("Added debtItem: file=" + debtItem.getFile() + ":" + debtItem.getLine() +
+                " title=\"" + debtItem.getTitle() + "\"" +
+                " desc=\"" + debtItem.getDescription() + "\"" +
+                " user=" + debtItem.getUsername() +
+                " targetVersion=\"" + debtItem.getTargetVersion() + "\"" +
+                " comment=\"" + debtItem.getComment() + "\"" +
+                " wantedLevel=" + debtItem.getWantedLevel() +
+                " complexity=" + debtItem.getComplexity() +
+                " status=" + debtItem.getStatus() +
+                " priority=" + debtItem.getPriority() +
+                " risk=" + debtItem.getRisk());
+        return DebtChange.applied(DebtChange.Type.ADD, null, debtItem, repoRoot);
+    }
+
+    private DebtChange applyRemove(final DebtItem debtItem) {
+        final DebtLocation location = debtLocations.remove(debtItem.getId());
+        if (location == null) {
+            LOG.warn("Attempted to remove non-existing debt: file=" + debtItem.getFile() + ":" + debtItem.getLine() +
+                    " title=\"" + debtItem.getTitle() + "\"");
+            return null;
+        }
+
+        final List<DebtItem> debts = debtsByRepository.get(location.repository());
+        final DebtItem storedItem = debts.remove(location.position());
+        unindexLine(location.repository(), storedItem);
+        indexPositions(location.repository(), debts, location.position());
+        markDirty(location.repository(), DebtJournalRecord.delete(storedItem.getId()));
+
+        LOG.info("Removed debt: file=" + debtItem.getFile() + ":" + debtItem.getLine() +
+                " title=\"" + debtItem.getTitle() + "\"" +
+                " desc=\"" + debtItem.getDescription() + "\"" +
+                " user=" + debtItem.getUsername() +
+                " targetVersion=\"" + debtItem.getTargetVersion() + "\"" +
+                " comment=\"" + debtItem.getComment() + "\"");
+        return DebtChange.applied(DebtChange.Type.REMOVE, storedItem, null, location.repository().getRepositoryAbsolutePath());
+    }
+
+    private DebtChange applyUpdate(final DebtItem oldDebtItem, final DebtItem newDebtItem) {
+        // Located by id: the caller may hold an outdated copy of the stored item
+        final DebtLocation location = debtLocations.get(oldDebtItem.getId());
+        if (location == null) {
+            LOG.warn("Attempted to update non-existing debt: old=" + oldDebtItem);
+            return null;
+        }
+
+        final List<DebtItem> debts = debtsByRepository.get(location.repository());
+        // Same id and revision: the new item is an unchanged copy of the stored one
+        if (debts.get(location.position()).equals(newDebtItem)) {
+            LOG.debug("No update, old an newItem are the same");
+            return null;
+        }
+
+        final DebtItem storedItem = debts.set(location.position(), newDebtItem);
+        unindexLine(location.repository(), storedItem);
+        indexLine(location.repository(), newDebtItem);
+        if (!oldDebtItem.getId().equals(newDebtItem.getId())) {
+            debtLocations.remove(oldDebtItem.getId());
+            debtLocations.put(newDebtItem.getId(), location);
+            markDirty(location.repository(), DebtJournalRecord.delete(storedItem.getId()));
+        }
+        markDirty(location.repository(), DebtJournalRecord.upsert(newDebtItem));
+
+        LOG.info("Updated debt: " + newDebtItem);
+        return DebtChange.applied(DebtChange.Type.UPDATE, storedItem, newDebtItem, location.repository().getRepositoryAbsolutePath());
+    }
 
-            refresh();
-            refreshHighlighting();
+    /**
+     * Record the position of the items of the repository starting at fromPosition.
+     */
+    private void indexPositions(final Repository repository, final List<DebtItem> debts, final int fromPosition) {
+        for (int position = fromPosition; position < debts.size(); position++) {
+            debtLocations.put(debts.get(position).getId(), new DebtLocation(repository, position));
         }
     }
 
+    private void indexLine(final Repository repository, final DebtItem debtItem) {
+        lineIndexByFile.compute(pathService.fileKey(repository.getRepositoryAbsolutePath(), debtItem.getFile()),
+                (key, index) -> (index == null ? DebtLineIndex.EMPTY : index).with(debtItem));
+    }
+
+    private void unindexLine(final Repository repository, final DebtItem debtItem) {
+        lineIndexByFile.computeIfPresent(pathService.fileKey(repository.getRepositoryAbsolutePath(), debtItem.getFile()), (key, index) -> {
+            final DebtLineIndex remaining = index.without(debtItem.getId());
+            return remaining.isEmpty() ? null : remaining;
+        });
+    }
+
+    /**
+     * Fast negative check for the hot paths: answers from the file name alone, without resolving the file key.
+     *
+     * @param absoluteFilePath absolute path of a file of the project
+     * @return false when the file has no debts for sure, true when it may have some
+     */
+    public boolean mayHaveDebts(@NotNull String absoluteFilePath) {
+        return snapshot.mayHaveDebts(absoluteFilePath);
+    }
+
+    /**
+     * @param absoluteFilePath absolute path of a file of the project
+     * @return the debts of this file, sorted by line; the returned index is immutable and can be used without locking
+     */
     @NotNull
-    public synchronized List<DebtItem> all() {
-        return debtsByRepository.values()
-                .stream()
-                .flatMap(Collection::stream)
-                .toList();
+    public DebtLineIndex getLineIndex(@NotNull String absoluteFilePath) {
+        final DebtSnapshot snapshot = this.snapshot;
+        if (!snapshot.mayHaveDebts(absoluteFilePath)) return DebtLineIndex.EMPTY;
+
+        final String fileKey = pathService.fileKeyOfAbsolutePath(absoluteFilePath);
+        if (fileKey == null) return DebtLineIndex.EMPTY;
+
+        return snapshot.getLineIndex(fileKey);
     }
 
-    public synchronized void migrateUsername(@NotNull String oldUsername, @NotNull String newUsername) {
+    /**
+     * @return the repository storing the debt with the same id as the given one
+     */
+    public synchronized Optional<Repository> findRepository(@NotNull DebtItem debtItem) {
+        return Optional.ofNullable(debtLocations.get(debtItem.getId()))
+                .map(DebtLocation::repository);
+    }
+
+    /**
+     * @return the debts of all the repositories, from the current snapshot
+     */
+    @NotNull
+    public List<DebtItem> all() {
+        return snapshot.all();
+    }
+
+    /**
+     * @return the current immutable view of the debts; safe to use from any thread without locking
+     */
+    @NotNull
+    public DebtSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publish the stored debts for lock-free readers. Must be called under this service's lock after each mutation.
+     */
+    private void publishSnapshot(final Collection<Repository> changedRepositories) {
+        snapshot = snapshot.next(debtsByRepository, changedRepositories, lineIndexByFile);
+    }
+
+    public void migrateUsername(@NotNull String oldUsername, @NotNull String newUsername) {
         if (oldUsername.isBlank() || oldUsername.equals(newUsername)) return;
 
         LOG.info("Migrating username: from=" + oldUsername + " to=" + newUsername);
 
-        int changedCount = 0;
-        for (final List<DebtItem> debts : debtsByRepository.values()) {
-            for (int i = 0; i < debts.size(); i++) {
-                DebtItem debtItem = debts.get(i);
-                if (oldUsername.equals(debtItem.getUsername())) {
-                    final DebtItem updated = debtItem.toBuilder()
-                            .withUsername(newUsername)
-                            .build();
-
-                    debts.set(i, updated);
-                    changedCount++;
-                }
+        final List<DebtChange> changes = new ArrayList<>();
+        for (DebtItem debtItem : all()) {
+            if (oldUsername.equals(debtItem.getUsername())) {
+                final DebtItem updated = debtItem.toBuilder()
+                        .withUsername(newUsername)
+                        .build();
+
+                changes.add(DebtChange.update(debtItem, updated));
             }
         }
 
-        if (changedCount > 0) {
-            saveDebts();
-            refreshHighlighting();
-            LOG.info("Username migration complete. changedItems=" + changedCount);
+        if (apply(changes)) {
+            LOG.info("Username migration complete. changedItems=" + changes.size());
         } else {
             LOG.info("Username migration: no items to update.");
         }
     }
 
     public void loadDebts() {
-        debtsByRepository.clear();
-        List<Repository> repositories = getRepositories();
-        String absolutPath = settings.getState().getDebtFilePath(project);
+        // Changes applied from now on may miss the disk read: they are replayed on the loaded debts
+        final List<DebtChange> changesDuringLoad = new ArrayList<>();
+        synchronized (this) {
+            changesDuringLoads.add(changesDuringLoad);
+        }
+        try {
+            loadDebts(changesDuringLoad);
+        } finally {
+            synchronized (this) {
+                changesDuringLoads.remove(changesDuringLoad);
+            }
+        }
+    }
+
+    private void loadDebts(final List<DebtChange> changesDuringLoad) {
+        // Pending edits must reach the disk before it is read back
+        flushPendingSaves();
+
+        final long start = System.currentTimeMillis();
+        final List<Repository> repositories = getRepositories();
+        // Picks up the indicator of the calling task (if any) so the load reports progress and can be canceled
+        final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+
+        // Repository files are independent: read them concurrently, each with its own indicator so cancellation reaches them
+        final List<ProgressIndicator> repositoryIndicators = new ArrayList<>();
+        final List<Future<RepositoryDebts>> futures = new ArrayList<>();
         for (Repository repository : repositories) {
+            final ProgressIndicator repositoryIndicator = new EmptyProgressIndicator();
+            repositoryIndicators.add(repositoryIndicator);
+            futures.add(loadExecutor.submit(() -> loadRepositoryDebts(repository, repositoryIndicator)));
+        }
+
+        // Results are merged in the repository order whatever the completion order
+        final Map<Repository, List<DebtItem>> loadedByRepository = new LinkedHashMap<>();
+        final Set<Repository> unreadable = new LinkedHashSet<>();
+        int total = 0;
+        try {
+            for (int i = 0; i < repositories.size(); i++) {
+                final Repository repository = repositories.get(i);
+                if (indicator != null) {
+                    indicator.setText2(repository.getRepositoryName());
+                }
+                final RepositoryDebts loaded = awaitRepositoryDebts(repository, futures.get(i), indicator);
+                // Registered even when its file cannot be read, so its debts can still be added and edited
+                loadedByRepository.put(repository, loaded.debts());
+                total += loaded.debts().size();
+                if (!loaded.complete()) {
+                    unreadable.add(repository);
+                }
+                if (indicator != null) {
+                    indicator.setFraction((double) (i + 1) / repositories.size());
+                }
+            }
+        } catch (ProcessCanceledException canceled) {
+            repositoryIndicators.forEach(ProgressIndicator::cancel);
+            futures.forEach(future -> future.cancel(false));
+            throw canceled;
+        }
+        LOG.info("Loaded debts total=%s from repos=%s in %s ms".formatted(total, repositories.size(), System.currentTimeMillis() - start));
+
+        synchronized (this) {
+            debtsByRepository.clear();
+            debtsByRepository.putAll(loadedByRepository);
+            debtLocations.clear();
+            lineIndexByFile.clear();
+            debtsByRepository.forEach((repository, debts) -> {
+                indexPositions(repository, debts, 0);
+                debts.forEach(debtItem -> indexLine(repository, debtItem));
+            });
+            loaded = true;
+            dirtyRepositories.clear();
+            journalByRepository.clear();
+            unreadableRepositories.clear();
+            unreadableRepositories.addAll(unreadable);
+            // Marks the replayed changes dirty again, so they are written like any other edit
+            changesDuringLoad.forEach(this::replayChange);
+            publishSnapshot(debtsByRepository.keySet());
+            if (!dirtyRepositories.isEmpty()) {
+                LOG.info("Replayed %s debt change(s) applied during the load".formatted(changesDuringLoad.size()));
+                scheduleSave();
+            }
+        }
+
+        // Keyed like ownWrites: both use debtFileOf, the file the repository is read from and written to
+        final Map<Path, Repository> debtFiles = new HashMap<>();
+        for (Repository repository : loadedByRepository.keySet()) {
             try {
-                File jsonFile = resolveRepoDebtFile(repository.getRepositoryAbsolutePath(), absolutPath);
-                if (!jsonFile.exists()) {
-                    debtsByRepository.put(repository, new ArrayList<>());
-                    continue;
+                final Repository previous = debtFiles.put(normalize(debtFileOf(repository)), repository);
+                if (previous != null) {
+                    LOG.warn("Repositories %s and %s share the debt file %s, only the latter is reloaded on change"
+                            .formatted(previous.getRepositoryName(), repository.getRepositoryName(), debtFileOf(repository)));
+                }
+            } catch (Exception e) {
+                LOG.warn("Cannot watch the debt file of repoRoot=" + repository + ": " + e.getMessage());
+            }
+        }
+        repositoryByDebtFile = Map.copyOf(debtFiles);
+
+        if (!unreadable.isEmpty()) {
+            final String files = unreadable.stream()
+                    .map(repository -> debtFileOf(repository).getPath())
+                    .collect(Collectors.joining("<br>"));
+            NotificationGroupManager.getInstance()
+                    .getNotificationGroup("Debt Notification Group")
+                    .createNotification("Debt file could not be read",
+                            files + "<br>Changes to its debts are not saved until the file is fixed.", NotificationType.ERROR)
+                    .notify(project);
+        }
+    }
+
+    /**
+     * @param absolutePath absolute path of any file
+     * @return the loaded repository whose debt file is at this path
+     */
+    public Optional<Repository> findRepositoryForDebtFile(@NotNull String absolutePath) {
+        try {
+            return Optional.ofNullable(repositoryByDebtFile.get(normalize(new File(absolutePath))));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reload the debt files of the given repositories after they changed on disk (VCS update, branch switch...).
+     * Only the debts whose id appeared, disappeared or whose content changed are published; the disk version wins over
+     * pending in-memory edits. Changes written by this service itself are ignored.
+     */
+    public void reloadDebtFilesInBackground(@NotNull Collection<Repository> repositories) {
+        if (!loaded || repositories.isEmpty()) return;
+
+        final List<Repository> toReload = List.copyOf(repositories);
+        loadExecutor.execute(() -> toReload.forEach(this::reloadDebtFile));
+    }
+
+    private void reloadDebtFile(final Repository repository) {
+        final File jsonFile = debtFileOf(repository);
+        if (isOwnWrite(jsonFile)) {
+            if (LOG.isDebugEnabled()) LOG.debug("Ignoring change of debt file written by the plugin: " + jsonFile);
+            return;
+        }
+
+        final List<DebtItem> debts = new ArrayList<>();
+        try {
+            // A file being rewritten (checkout in progress, conflict markers) must not drop the stored debts
+            if (jsonFile.exists() && !readRepositoryDebts(jsonFile, null, debts)) {
+                LOG.warn("Debt file could not be fully read, keeping the loaded debts: " + jsonFile);
+                return;
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed reloading debts for repoRoot=" + repository + ": " + e.getMessage(), e);
+            return;
+        }
+
+        final boolean wasUnreadable;
+        synchronized (this) {
+            wasUnreadable = unreadableRepositories.remove(repository);
+        }
+        if (wasUnreadable) {
+            LOG.info("Debt file can be read again, saving its debts: " + jsonFile);
+        }
+
+        final List<DebtChange> changes = replaceRepositoryDebts(repository, debts);
+        if (changes.isEmpty()) return;
+
+        LOG.info("Reloaded debt file %s: %s change(s)".formatted(jsonFile, changes.size()));
+        final DebtChangeEvent event = new DebtChangeEvent(changes, Set.of(repository));
+        ApplicationManager.getApplication().invokeLater(() -> {
+            notifyDebtsChanged(event);
+            refreshHighlighting(changes);
+        }, project.getDisposed());
+    }
+
+    /**
+     * Apply again a change already applied before the debts were reloaded. Changes flushed before the disk was read
+     * are found in the loaded debts: an add of a loaded debt becomes an update of it.
+     */
+    private void replayChange(final DebtChange change) {
+        final DebtItem newItem = change.getNewItem();
+        if (change.getType() == DebtChange.Type.ADD && newItem != null && debtLocations.containsKey(newItem.getId())) {
+            final DebtLocation location = debtLocations.get(newItem.getId());
+            applyChange(DebtChange.update(debtsByRepository.get(location.repository()).get(location.position()), newItem));
+        } else {
+            applyChange(change);
+        }
+    }
+
+    /**
+     * Replace the stored debts of a repository, keeping the indexes in sync.
+     *
+     * @return the applied changes between the stored and the given debts, matched by id
+     */
+    private synchronized List<DebtChange> replaceRepositoryDebts(final Repository repository, final List<DebtItem> debts) {
+        final List<DebtItem> stored = debtsByRepository.get(repository);
+        if (stored == null) return List.of();
+
+        final String repoRoot = repository.getRepositoryAbsolutePath();
+        final Map<String, DebtItem> storedById = new HashMap<>();
+        stored.forEach(debtItem -> storedById.put(debtItem.getId(), debtItem));
+
+        final List<DebtChange> changes = new ArrayList<>();
+        // Unchanged debts keep their stored instance, which the line indexes and the snapshot hold
+        final List<DebtItem> merged = new ArrayList<>(debts.size());
+        for (DebtItem debtItem : debts) {
+            final DebtItem storedItem = storedById.remove(debtItem.getId());
+            if (storedItem == null) {
+                changes.add(DebtChange.applied(DebtChange.Type.ADD, null, debtItem, repoRoot));
+                merged.add(debtItem);
+            } else if (!storedItem.hasSameContent(debtItem)) {
+                changes.add(DebtChange.applied(DebtChange.Type.UPDATE, storedItem, debtItem, repoRoot));
+                merged.add(debtItem);
+            } else {
+                merged.add(storedItem);
+            }
+        }
+        // Remaining stored items are no longer on disk
+        storedById.values().forEach(storedItem -> changes.add(DebtChange.applied(DebtChange.Type.REMOVE, storedItem, null, repoRoot)));
+        if (changes.isEmpty()) return changes;
+
+        for (DebtChange change : changes) {
+            if (change.getOldItem() != null) {
+                debtLocations.remove(change.getOldItem().getId());
+                unindexLine(repository, change.getOldItem());
+            }
+            if (change.getNewItem() != null) {
+                indexLine(repository, change.getNewItem());
+            }
+        }
+        stored.clear();
+        stored.addAll(merged);
+        indexPositions(repository, stored, 0);
+        dirtyRepositories.remove(repository);
+        journalByRepository.remove(repository);
+        publishSnapshot(List.of(repository));
+        return changes;
+    }
+
+    private boolean isOwnWrite(final File jsonFile) {
+        final FileStamp written = ownWrites.get(normalize(jsonFile));
+        return written != null && written.equals(FileStamp.of(jsonFile));
+    }
+
+    private static Path normalize(final File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Load the debts of a single repository, run on the load executor.
+     */
+    private RepositoryDebts loadRepositoryDebts(final Repository repository, final ProgressIndicator indicator) {
+        final long start = System.currentTimeMillis();
+        final File jsonFile = debtFileOf(repository);
+        if (!jsonFile.exists()) {
+            return new RepositoryDebts(new ArrayList<>(), true);
+        }
+        final List<DebtItem> loaded = new ArrayList<>();
+        final boolean complete = readRepositoryDebts(jsonFile, indicator, loaded);
+        if (!complete) {
+            LOG.warn("Debt file could not be fully read, its writes are blocked: " + jsonFile);
+        }
+        LOG.info("Loaded %s debts for repoRoot=%s in %s ms".formatted(loaded.size(), repository.getRepositoryAbsolutePath(), System.currentTimeMillis() - start));
+        return new RepositoryDebts(loaded, complete);
+    }
+
+    /**
+     * Wait for the load of a repository while checking the calling indicator for cancellation.
+     *
+     * @return the loaded debts, incomplete when the load failed
+     */
+    private RepositoryDebts awaitRepositoryDebts(final Repository repository, final Future<RepositoryDebts> future, @Nullable final ProgressIndicator indicator) {
+        while (true) {
+            if (indicator != null) {
+                indicator.checkCanceled();
+            }
+            try {
+                return future.get(LOAD_POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still loading
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                LOG.warn("Failed loading debts for repoRoot=" + repository + ": " + cause.getMessage(), cause);
+                return new RepositoryDebts(new ArrayList<>(), false);
+            }
+        }
+    }
+
+    /**
+     * Read the debts of a JSON file into loaded, from the binary cache when it matches the file content,
+     * then replay the journal of the file (if any).
+     *
+     * @return true when the whole file has been read
+     */
+    private boolean readRepositoryDebts(final File jsonFile, @Nullable final ProgressIndicator indicator, final List<DebtItem> loaded) {
+        final boolean complete = readDebtFile(jsonFile, indicator, loaded);
+        this.debtReaderService.replayJournal(jsonFile, loaded);
+        return complete;
+    }
+
+    private boolean readDebtFile(final File jsonFile, @Nullable final ProgressIndicator indicator, final List<DebtItem> loaded) {
+        if (!settings.getState().isDebtCacheEnabled()) {
+            return this.debtReaderService.readDebts(jsonFile, loaded::add, indicator);
+        }
+
+        final DebtBinaryCache.Key key = debtBinaryCache.keyOf(jsonFile);
+        final List<DebtItem> cached = key == null ? null : debtBinaryCache.read(key);
+        if (cached != null) {
+            LOG.info("Loaded %s debts from cache for %s".formatted(cached.size(), jsonFile));
+            loaded.addAll(cached);
+            return true;
+        }
+
+        // Only a complete read may be cached
+        final boolean complete = this.debtReaderService.readDebts(jsonFile, loaded::add, indicator);
+        if (complete && key != null) {
+            debtBinaryCache.write(key, loaded);
+        }
+        return complete;
+    }
+
+    /**
+     * Record the change of a single debt. While the repository only has such changes, a journaled flush appends them
+     * instead of rewriting the debt file.
+     */
+    private void markDirty(final Repository repository, final DebtJournalRecord record) {
+        if (dirtyRepositories.add(repository)) {
+            journalByRepository.put(repository, new LinkedHashMap<>());
+        }
+        final Map<String, DebtJournalRecord> records = journalByRepository.get(repository);
+        if (records != null) {
+            // Only the last state of a debt is appended
+            records.remove(record.id());
+            records.put(record.id(), record);
+        }
+    }
+
+    /**
+     * Mark the repository for a full rewrite of its debt file.
+     */
+    private void markDirty(final Repository repository) {
+        dirtyRepositories.add(repository);
+        journalByRepository.remove(repository);
+    }
+
+    /**
+     * Queue a write of the dirty repositories. Edits arriving before the queued write runs are coalesced into it,
+     * so a burst of changes results in one write per modified file.
+     *
+     * @return false when the service is disposed: the caller must flush itself, outside this service's lock
+     */
+    private synchronized boolean scheduleSave() {
+        if (saveExecutor.isShutdown()) return false;
+        if (pendingSave == null || pendingSave.isDone()) {
+            pendingSave = saveExecutor.schedule(this::flushPendingSaves, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Queue a new write after a failed one, backing off while the writes keep failing.
+     */
+    private synchronized void scheduleRetry() {
+        consecutiveSaveFailures++;
+        final long delay = Math.min(SAVE_RETRY_MAX_MS, SAVE_DELAY_MS << Math.min(consecutiveSaveFailures - 1, 16));
+        if (saveExecutor.isShutdown()) return;
+        if (pendingSave == null || pendingSave.isDone()) {
+            LOG.warn("Writing the debt files failed %s time(s), retrying in %s ms".formatted(consecutiveSaveFailures, delay));
+            pendingSave = saveExecutor.schedule(this::flushPendingSaves, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Synchronously write the repositories modified since their last write, one JSON file per repo root
+     * using the configured relative path. Untouched repositories are not rewritten.
+     * Safe to call from any thread; used directly when the files must be up-to-date (project close, settings change).
+     */
+    public void flushPendingSaves() {
+        synchronized (writeLock) {
+            // Once disposed, no compaction would fold a journal appended now
+            final boolean journalEnabled = settings.getState().isDebtJournalEnabled() && !saveExecutor.isShutdown();
+            final Map<Repository, List<DebtItem>> toWrite = new LinkedHashMap<>();
+            final Map<Repository, Collection<DebtJournalRecord>> toAppend = new LinkedHashMap<>();
+            final Set<Repository> compacted = new LinkedHashSet<>();
+            synchronized (this) {
+                if (pendingSave != null) {
+                    pendingSave.cancel(false);
+                    pendingSave = null;
+                }
+                final Set<Repository> blocked = new LinkedHashSet<>();
+                for (Repository repository : dirtyRepositories) {
+                    if (!debtsByRepository.containsKey(repository)) continue;
+                    if (unreadableRepositories.contains(repository)) {
+                        blocked.add(repository);
+                        continue;
+                    }
+
+                    final Map<String, DebtJournalRecord> records = journalByRepository.get(repository);
+                    if (journalEnabled && records != null) {
+                        toAppend.put(repository, records.values());
+                    } else {
+                        compacted.add(repository);
+                    }
+                }
+                // Blocked repositories stay dirty, in case their file is read again
+                dirtyRepositories.retainAll(blocked);
+                journalByRepository.keySet().retainAll(blocked);
+                if (!blocked.isEmpty()) {
+                    LOG.warn("Not writing the debts of %s repositories whose debt file could not be read".formatted(blocked.size()));
                 }
-                List<DebtItem> loaded = this.debtReaderService.readDebts(jsonFile);
+            }
 
-                debtsByRepository.put(repository, new ArrayList<>(loaded));
-                LOG.info("Loaded debts total=%s from repos=%s".formatted(loaded.size(), repositories.size()));
-            } catch (Exception ex) {
-                LOG.warn("Failed loading debts for repoRoot=" + repository + ": " + ex.getMessage(), ex);
+            // Checking the files is I/O: done outside the lock, which apply() takes on the EDT
+            for (Iterator<Repository> iterator = toAppend.keySet().iterator(); iterator.hasNext(); ) {
+                final Repository repository = iterator.next();
+                if (needsCompaction(repository)) {
+                    iterator.remove();
+                    compacted.add(repository);
+                }
+            }
+            if (!compacted.isEmpty()) {
+                synchronized (this) {
+                    // Changes applied meanwhile are written too; they are dirty again and written once more, idempotently
+                    for (Repository repository : compacted) {
+                        final List<DebtItem> items = debtsByRepository.get(repository);
+                        if (items != null) toWrite.put(repository, new ArrayList<>(items));
+                    }
+                }
+            }
+
+            boolean failed = false;
+            for (Map.Entry<Repository, Collection<DebtJournalRecord>> entry : toAppend.entrySet()) {
+                if (!appendJournal(entry.getKey(), entry.getValue())) {
+                    failed = true;
+                    synchronized (this) {
+                        // The records are lost: retry with a full write
+                        markDirty(entry.getKey());
+                    }
+                }
+            }
+            for (Map.Entry<Repository, List<DebtItem>> entry : toWrite.entrySet()) {
+                if (!saveDebts(entry)) {
+                    failed = true;
+                    synchronized (this) {
+                        markDirty(entry.getKey());
+                    }
+                }
+            }
+            if (failed) {
+                scheduleRetry();
+            } else if (!toAppend.isEmpty() || !toWrite.isEmpty()) {
+                synchronized (this) {
+                    consecutiveSaveFailures = 0;
+                }
+            }
+            if (!toAppend.isEmpty()) {
+                scheduleCompaction();
             }
         }
+    }
 
+    /**
+     * Rewrite the debt files having a journal, and those of the repositories modified since their last write, so they
+     * contain all the debts on their own and no journal is left.
+     */
+    public void compactJournals() {
+        final List<Repository> repositories;
+        synchronized (this) {
+            repositories = new ArrayList<>(debtsByRepository.keySet());
+        }
+        final List<Repository> journaled = repositories.stream()
+                .filter(repository -> debtWriterService.journalLength(debtFileOf(repository)) > 0)
+                .toList();
+        synchronized (this) {
+            journaled.stream().filter(debtsByRepository::containsKey).forEach(this::markDirty);
+            // Pending records would start a new journal: write the dirty repositories in full instead
+            journalByRepository.clear();
+        }
+        flushPendingSaves();
     }
 
-    private void saveDebts(String repoRoot) {
-        getDebtForRepositoryAbsolutePath(repoRoot)
-                .ifPresent(this::saveDebts);
+    private boolean needsCompaction(final Repository repository) {
+        final File jsonFile = debtFileOf(repository);
+        // The journal is only replayed on top of an existing debt file
+        return !jsonFile.exists() || debtWriterService.journalLength(jsonFile) >= JOURNAL_COMPACTION_BYTES;
     }
 
     /**
-     * Save debts grouped by repository, writing one JSON file per repo root using the configured relative path.
-     * Items without repoRoot are saved into the legacy project-level file for backward compatibility.
+     * Compact the journals once no edit has been flushed for a while.
      */
-    private void saveDebts() {
-        for (Map.Entry<Repository, List<DebtItem>> entry : debtsByRepository.entrySet()) {
-            saveDebts(entry);
+    private synchronized void scheduleCompaction() {
+        if (saveExecutor.isShutdown()) return;
+        if (pendingCompaction != null) {
+            pendingCompaction.cancel(false);
+        }
+        pendingCompaction = saveExecutor.schedule(this::compactJournals, JOURNAL_COMPACTION_IDLE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean appendJournal(final Repository repository, final Collection<DebtJournalRecord> records) {
+        final File jsonAbsolutePathFile = debtFileOf(repository);
+        if (this.debtWriterService.appendJournal(jsonAbsolutePathFile, records)) {
+            if (LOG.isDebugEnabled()) LOG.debug("Journaled %s debt change(s) for repoRoot=%s".formatted(records.size(), repository.getRepositoryAbsolutePath()));
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * The debt file of a repository: its override in the settings (absolute, or relative to the repository root),
+     * else the JSON path of the repository under its root. The file is read, written, journaled and cached through
+     * this single resolution, so all of them always designate the same file.
+     */
+    private File debtFileOf(final Repository repository) {
+        final String repoRoot = repository.getRepositoryAbsolutePath();
+        return resolveRepoDebtFileWithOverride(repoRoot, overrideOf(repoRoot), defaultDebtFileOf(repoRoot, repository.getJsonPath()));
+    }
+
+    @Nullable
+    private String overrideOf(final String repoRoot) {
+        final Map<String, String> overrides = settings.getState().getRepoDebtPaths();
+        if (overrides == null) return null;
+        // Roots may have been stored with Windows separators
+        final String override = overrides.get(repoRoot);
+        return override != null ? override : overrides.get(repoRoot.replace("/", "\\"));
     }
 
-    private void saveDebts(final Map.Entry<Repository, List<DebtItem>> entry) {
+    private static String defaultDebtFileOf(final String repoRoot, final String jsonPath) {
+        return new File(repoRoot, jsonPath).getPath();
+    }
+
+    private boolean saveDebts(final Map.Entry<Repository, List<DebtItem>> entry) {
         final Repository repository = entry.getKey();
         final List<DebtItem> items = entry.getValue();
 
-        final File jsonAbsolutePathFile = new File(repository.getRepositoryAbsolutePath(), repository.getJsonPath());
+        final File jsonAbsolutePathFile = debtFileOf(repository);
 
         if (this.debtWriterService.write(jsonAbsolutePathFile, items)) {
+            ownWrites.put(normalize(jsonAbsolutePathFile), FileStamp.of(jsonAbsolutePathFile));
+            // The file now contains every journaled change
+            this.debtWriterService.deleteJournal(jsonAbsolutePathFile);
+            if (settings.getState().isDebtCacheEnabled()) {
+                // Keep the cache in sync with the file we just wrote so the next startup skips parsing
+                final DebtBinaryCache.Key key = debtBinaryCache.keyOf(jsonAbsolutePathFile);
+                if (key != null) {
+                    debtBinaryCache.write(key, items);
+                }
+            }
             LOG.info("Saved repo debts. repoRoot=%s count=%s path=%s".formatted(
                     repository.getRepositoryAbsolutePath(),
                     items.size(),
                     jsonAbsolutePathFile.toString()));
+            return true;
         }
+        return false;
     }
 
-    private File resolveRepoDebtFile(String repoRoot, String absolutPath) {
-        try {
-            Map<String, String> overrides = settings.getState().getRepoDebtPaths();
-            String val = overrides != null ? overrides.get(repoRoot) : null;
-            return resolveRepoDebtFileWithOverride(repoRoot, val, absolutPath);
-        } catch (Exception e) {
-            return new File(repoRoot, absolutPath);
+    @Override
+    public void dispose() {
+        // Project is closing: nothing queued may be lost, journals are folded into the debt files
+        compactJournals();
+        synchronized (this) {
+            if (pendingCompaction != null) {
+                pendingCompaction.cancel(false);
+            }
+            // Under the lock, so scheduling either happens before or sees the executor shut down
+            saveExecutor.shutdown();
         }
+        loadExecutor.shutdown();
     }
 
     private static File resolveRepoDebtFileWithOverride(String repoRoot, String overrideOrBlank, String defaultAbsolutPath) {
@@ -301,8 +1036,9 @@ public final class DebtService {
      */
     public void renameRepoDebtJsonIfPathChanged(Map<String, String> oldOverrides,
                                                 Map<String, String> newOverrides) {
+        // The files about to be moved must contain every queued edit, their journals are not moved
+        compactJournals();
         try {
-            String defaultAbsolutPath = settings.getState().getDebtFilePath(project);
             LinkedHashSet<String> roots = new LinkedHashSet<>();
             if (oldOverrides != null) roots.addAll(oldOverrides.keySet());
             if (newOverrides != null) roots.addAll(newOverrides.keySet());
@@ -315,6 +1051,8 @@ public final class DebtService {
                 if (root == null || root.isBlank()) continue;
                 String oldOverride = oldOverrides == null ? null : oldOverrides.get(root);
                 String newOverride = newOverrides == null ? null : newOverrides.get(root);
+                // Same default as debtFileOf, so the moved file is the one read and written afterwards
+                String defaultAbsolutPath = defaultDebtFileOf(root, DebtSettings.DEFAULT_DEBT_FILE_PATH);
                 File oldFile = resolveRepoDebtFileWithOverride(root, oldOverride, defaultAbsolutPath);
                 File newFile = resolveRepoDebtFileWithOverride(root, newOverride, defaultAbsolutPath);
                 // Normalize
@@ -347,61 +1085,129 @@ public final class DebtService {
     }
 
     private void refreshHighlighting() {
+        // Drawn by DebtHighlighterService, which follows the changes itself
+        if (settings.getState().isDebtHighlightersEnabled()) return;
         if (LOG.isDebugEnabled()) LOG.debug("refreshHighlighting invoked");
         DaemonCodeAnalyzer.getInstance(project).restart();
     }
 
+    /**
+     * Restart the highlighting of the open files whose debts changed only: the files of the old and the new item of
+     * each change, so both ends of a move are refreshed.
+     */
+    private void refreshHighlighting(final Collection<DebtChange> changes) {
+        if (settings.getState().isDebtHighlightersEnabled()) return;
+
+        final Set<String> paths = new LinkedHashSet<>();
+        for (DebtChange change : changes) {
+            addAbsolutePath(paths, change.getRepoRoot(), change.getOldItem());
+            addAbsolutePath(paths, change.getRepoRoot(), change.getNewItem());
+        }
+
+        final Runnable restart = () -> {
+            final FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
+            final PsiManager psiManager = PsiManager.getInstance(project);
+            int restarted = 0;
+            for (String path : paths) {
+                final VirtualFile file = LocalFileSystem.getInstance().findFileByPath(path);
+                // Closed files are highlighted from scratch when opened
+                if (file == null || !fileEditorManager.isFileOpen(file)) continue;
+
+                final PsiFile psiFile = psiManager.findFile(file);
+                if (psiFile != null) {
+                    DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+                    restarted++;
+                }
+            }
+            if (LOG.isDebugEnabled()) LOG.debug("Highlighting restarted for %s/%s changed file(s)".formatted(restarted, paths.size()));
+        };
+        if (ApplicationManager.getApplication().isDispatchThread()) {
+            restart.run();
+        } else {
+            ApplicationManager.getApplication().invokeLater(restart, project.getDisposed());
+        }
+    }
+
+    private void addAbsolutePath(final Set<String> paths, @Nullable final String repoRoot, @Nullable final DebtItem debtItem) {
+        if (repoRoot == null || debtItem == null || debtItem.getFile() == null) return;
+        paths.add(pathService.toAbsolutePath(repoRoot, debtItem.getFile()));
+    }
+
     private List<Repository> getRepositories() {
         final RepositoriesService repositoriesService = project.getService(RepositoriesService.class);
         return repositoriesService.getRepositories();
     }
 
+    /**
+     * @return the normalized root of the deepest repository containing the path, empty when there is none
+     */
     public String findRepoRootForAbsolutePath(String absolutePath) {
-        if (absolutePath == null || absolutePath.isBlank()) return "";
-        String abs;
-        try {
-            abs = Paths.get(absolutePath).toAbsolutePath().normalize().toString();
-        } catch (Exception e) {
-            abs = absolutePath;
-        }
-        for (Repository repository : getRepositories()) {
-            try {
-                Path r = Paths.get(repository.getRepositoryAbsolutePath()).toAbsolutePath().normalize();
-                Path a = Paths.get(abs).toAbsolutePath().normalize();
-                if (a.startsWith(r)) return r.toString();
-            } catch (Exception ignore) {
-            }
-        }
-        return "";
+        return pathService.findRepoRoot(absolutePath);
     }
 
     public String toRepoRelative(String anyPath, String repoRoot) {
-        if (anyPath == null) return "";
-        try {
-            Path p = Paths.get(anyPath);
-            Path abs = p.isAbsolute() ? p.toAbsolutePath().normalize() : p.toAbsolutePath().normalize();
-            if (repoRoot != null && !repoRoot.isBlank()) {
-                Path root = Paths.get(repoRoot).toAbsolutePath().normalize();
-                if (abs.startsWith(root)) {
-                    return root.relativize(abs).toString().replace('\\', '/');
-                }
-            }
-            return abs.toString().replace('\\', '/');
-        } catch (Exception e) {
-            return anyPath.replace('\\', '/');
-        }
+        return pathService.toRepoRelative(anyPath, repoRoot);
     }
 
     public Map<Repository, List<DebtItem>> getDebtsByRepository() {
-        return debtsByRepository;
+        return snapshot.getDebtsByRepository();
     }
 
+    /**
+     * Notify listeners of the applied changes, without reloading the debts from disk.
+     */
+    private void notifyDebtsChanged(final DebtChangeEvent event) {
+        project.getMessageBus().syncPublisher(TOPIC).debtsChanged(event);
+    }
+
+    /**
+     * Ask the views to rebuild from the in-memory debts (e.g. after a repository selection change), without reading the disk.
+     */
+    public void refreshViews() {
+        project.getMessageBus().syncPublisher(TOPIC).refresh();
+    }
+
+    /**
+     * Re-read the repositories and their debt files in background, then rebuild the views.
+     */
     public void refresh() {
-        final RepositoriesService repositoriesService = project.getService(RepositoriesService.class);
+        loadDebtsInBackground(true);
+    }
 
-        repositoriesService.refreshAndLoadDebts();
+    /**
+     * @return true once the debts have been loaded at least once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
 
-        project.getMessageBus().syncPublisher(TOPIC).refresh();
+    /**
+     * Load the debts in a cancellable background task reporting its progress, then rebuild the views and
+     * restart highlighting so the gutter shows the loaded debts.
+     *
+     * @param refreshRepositories true to re-read the repositories from the VCS mappings first
+     */
+    public void loadDebtsInBackground(final boolean refreshRepositories) {
+        new Task.Backgroundable(project, "Loading technical debts", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                final long start = System.currentTimeMillis();
+                if (refreshRepositories) {
+                    project.getService(RepositoriesService.class).refreshAndLoadDebts();
+                } else {
+                    loadDebts();
+                }
+                LOG.info("Debts loaded in background in %s ms".formatted(System.currentTimeMillis() - start));
+            }
+
+            @Override
+            public void onSuccess() {
+                if (project.isDisposed()) return;
+                refreshViews();
+                refreshHighlighting();
+            }
+        }.queue();
     }
 
     public void getDistinctPriorities(final List<DebtItem> debtItems, final Consumer<String> priorityConsumer) {
@@ -487,4 +1293,19 @@ public final class DebtService {
         }
         return null;
     }
+
+    private record FileStamp(long size, long lastModified) {
+        static FileStamp of(final File file) {
+            return new FileStamp(file.length(), file.lastModified());
+        }
+    }
+
+    /**
+     * @param complete false when the debt file could not be fully read
+     */
+    private record RepositoryDebts(List<DebtItem> debts, boolean complete) {
+    }
+
+    private record DebtLocation(Repository repository, int position) {
+    }
 }
@@ -1,5 +1,16 @@
 package com.github.fligneul.debtplugin.debt.service;
 
 public interface DebtServiceListener {
+    /**
+     * The debts have been reloaded or the displayed repositories changed: views must be rebuilt.
+     */
     void refresh();
+
+    /**
+     * Debts have been added, updated or removed in memory; only the given changes need to be applied.
+     * Defaults to a full {@link #refresh()}.
+     */
+    default void debtsChanged(DebtChangeEvent event) {
+        refresh();
+    }
 }
@@ -0,0 +1,104 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.model.Repository;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable view of the stored debts, published by {@link DebtService} after each load or batch of changes.
+ * A snapshot never changes once published: readers on any thread get a consistent view without locking.
+ */
+public final class DebtSnapshot {
+    public static final DebtSnapshot EMPTY = new DebtSnapshot(0, Map.of(), Map.of());
+
+    private final long version;
+    private final Map<Repository, List<DebtItem>> debtsByRepository;
+    private final List<DebtItem> all;
+    private final Map<String, DebtLineIndex> lineIndexByFile;
+    private final DebtFileFilter fileFilter;
+
+    private DebtSnapshot(final long version,
+                         final Map<Repository, List<DebtItem>> debtsByRepository,
+                         final Map<String, DebtLineIndex> lineIndexByFile) {
+        this.version = version;
+        this.debtsByRepository = debtsByRepository;
+        this.lineIndexByFile = lineIndexByFile;
+        this.fileFilter = DebtFileFilter.of(lineIndexByFile.keySet());
+
+        final List<DebtItem> flattened = new ArrayList<>();
+        debtsByRepository.values().forEach(flattened::addAll);
+        this.all = Collections.unmodifiableList(flattened);
+    }
+
+    /**
+     * Build the snapshot following this one. Lists of the repositories that did not change are shared with this snapshot.
+     *
+     * @param debtsByRepository   current (mutable) storage, copied
+     * @param changedRepositories repositories whose list must be copied again
+     * @param lineIndexByFile     current line indexes (immutable values), copied
+     */
+    DebtSnapshot next(final Map<Repository, List<DebtItem>> debtsByRepository,
+                      final Iterable<Repository> changedRepositories,
+                      final Map<String, DebtLineIndex> lineIndexByFile) {
+        final Map<Repository, List<DebtItem>> copy = new LinkedHashMap<>();
+        debtsByRepository.forEach((repository, debts) -> {
+            final List<DebtItem> previous = this.debtsByRepository.get(repository);
+            copy.put(repository, previous != null ? previous : List.copyOf(debts));
+        });
+        for (Repository repository : changedRepositories) {
+            final List<DebtItem> debts = debtsByRepository.get(repository);
+            if (debts != null) {
+                copy.put(repository, List.copyOf(debts));
+            }
+        }
+
+        return new DebtSnapshot(version + 1, Collections.unmodifiableMap(copy), Map.copyOf(lineIndexByFile));
+    }
+
+    /**
+     * Incremented on each publication, so a cached result can be checked against the current snapshot.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @NotNull
+    public Map<Repository, List<DebtItem>> getDebtsByRepository() {
+        return debtsByRepository;
+    }
+
+    @NotNull
+    public Optional<Map.Entry<Repository, List<DebtItem>>> getDebtForRepositoryAbsolutePath(@NotNull final String repoRoot) {
+        return debtsByRepository.entrySet()
+                .stream()
+                .filter(entry -> entry.getKey().getRepositoryAbsolutePath().equals(repoRoot))
+                .findFirst();
+    }
+
+    /**
+     * @return the debts of all the repositories
+     */
+    @NotNull
+    public List<DebtItem> all() {
+        return all;
+    }
+
+    /**
+     * @return false when the file at this absolute path has no debts for sure
+     */
+    boolean mayHaveDebts(@NotNull final String absoluteFilePath) {
+        return fileFilter.mightContain(absoluteFilePath);
+    }
+
+    @NotNull
+    DebtLineIndex getLineIndex(@NotNull final String fileKey) {
+        return lineIndexByFile.getOrDefault(fileKey, DebtLineIndex.EMPTY);
+    }
+}
@@ -30,6 +30,8 @@ public final class RepositoriesService {
     private final Project project;
     // Cached repositories list, initialized from .idea/misc.xml and updatable by UI
     private final List<Repository> repositories = new ArrayList<>();
+    // Incremented each time the repositories list is replaced, so derived data can be rebuilt lazily
+    private volatile long modificationCount;
 
     public RepositoriesService(Project project) {
         this.project = project;
@@ -128,10 +130,18 @@ public final class RepositoriesService {
         synchronized (repositories) {
             repositories.clear();
             if (roots != null) repositories.addAll(roots);
+            modificationCount++;
         }
         if (LOG.isDebugEnabled()) LOG.debug("RepositoriesService.setRepositories -> " + repositories);
     }
 
+    /**
+     * @return a counter incremented each time the repositories list changes
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
     /**
      * Refresh the repositories list by re-reading .idea/misc.xml.
      *
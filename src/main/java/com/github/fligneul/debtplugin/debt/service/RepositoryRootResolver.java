@@ -0,0 +1,87 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.Repository;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Longest-prefix lookup of the repository root containing a path.
+ * Roots are normalized once and sorted longest first, so a lookup is a walk over plain strings; the answers of recent
+ * lookups are cached. An instance is immutable apart from its cache and built for a given {@link RepositoriesService}
+ * modification count.
+ */
+final class RepositoryRootResolver {
+    private static final int CACHE_SIZE = 1024;
+    // Windows file systems are case-insensitive, like Path.startsWith there
+    private static final boolean IGNORE_CASE = File.separatorChar == '\\';
+
+    private final long modificationCount;
+    private final String[] roots;
+    private final Map<String, String> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    RepositoryRootResolver(final long modificationCount, @NotNull final Collection<Repository> repositories) {
+        this.modificationCount = modificationCount;
+        this.roots = repositories.stream()
+                .map(repository -> normalize(repository.getRepositoryAbsolutePath()))
+                .filter(root -> !root.isEmpty())
+                .distinct()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toArray(String[]::new);
+    }
+
+    long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * @return the normalized root of the deepest repository containing the path, empty when there is none
+     */
+    @NotNull
+    String resolve(@NotNull final String absolutePath) {
+        synchronized (cache) {
+            final String cached = cache.get(absolutePath);
+            if (cached != null) return cached;
+        }
+
+        final String path = normalize(absolutePath);
+        String resolved = "";
+        for (String root : roots) {
+            if (isUnder(path, root)) {
+                resolved = root;
+                break;
+            }
+        }
+
+        synchronized (cache) {
+            cache.put(absolutePath, resolved);
+        }
+        return resolved;
+    }
+
+    private static boolean isUnder(final String path, final String root) {
+        if (!path.regionMatches(IGNORE_CASE, 0, root, 0, root.length())) return false;
+        // Whole name components only: /repo must not contain /repository
+        return path.length() == root.length()
+                || root.endsWith(File.separator)
+                || path.charAt(root.length()) == File.separatorChar;
+    }
+
+    private static String normalize(final String path) {
+        try {
+            return Paths.get(path).toAbsolutePath().normalize().toString();
+        } catch (Exception e) {
+            return path;
+        }
+    }
+}
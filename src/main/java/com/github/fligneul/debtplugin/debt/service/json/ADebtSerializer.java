@@ -13,11 +13,19 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
+import java.io.File;
 import java.lang.reflect.Type;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 public abstract class ADebtSerializer {
+    // Journal of a debt file: one JSON record per line, see DebtJournalRecord
+    private static final String JOURNAL_SUFFIX = ".journal";
+    protected static final String JOURNAL_OP = "op";
+    protected static final String JOURNAL_OP_UPSERT = "upsert";
+    protected static final String JOURNAL_OP_DELETE = "delete";
+    protected static final String JOURNAL_ID = "id";
+    protected static final String JOURNAL_DEBT = "debt";
 
     protected final Gson gson;
 
@@ -28,6 +36,13 @@ public abstract class ADebtSerializer {
                 .create();
     }
 
+    /**
+     * @return the journal file of the given debt file, next to it
+     */
+    public static File journalFileOf(final File jsonFile) {
+        return new File(jsonFile.getPath() + JOURNAL_SUFFIX);
+    }
+
     private static final class DebtItemDeserializer implements JsonDeserializer<DebtItem> {
         @Override
         public DebtItem deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
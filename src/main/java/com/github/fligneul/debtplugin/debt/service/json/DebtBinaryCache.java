@@ -0,0 +1,264 @@
+package com.github.fligneul.debtplugin.debt.service.json;
+
+import com.github.fligneul.debtplugin.debt.model.Complexity;
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.model.Relationship;
+import com.github.fligneul.debtplugin.debt.model.Risk;
+import com.github.fligneul.debtplugin.debt.model.Status;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary copy of the debts of a JSON file, stored in the IDE cache directory to skip JSON parsing on startup.
+ * The JSON file stays the source of truth: a cache entry is only used when the path, size, modification time and
+ * content checksum of the JSON file match the ones recorded when the entry was written.
+ * <p>
+ * Strings are written once in a string table and referenced by index; enums are written as ordinals.
+ */
+public class DebtBinaryCache {
+    private static final Logger LOG = Logger.getInstance(DebtBinaryCache.class);
+
+    private static final int MAGIC = 0x44454254; // "DEBT"
+    private static final int FORMAT_VERSION = 1;
+    // Enum ordinals are only meaningful with the enum constants they were written with
+    private static final int ENUMS_FINGERPRINT = Stream.of(Complexity.values(), Status.values(), Risk.values(), Relationship.values())
+            .map(values -> Stream.of(values).map(Enum::name).toList())
+            .toList()
+            .hashCode();
+
+    private final Path cacheDirectory;
+
+    public DebtBinaryCache(@NotNull final Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Identity of a JSON file content.
+     */
+    public record Key(String path, long size, long lastModified, int checksum) {
+    }
+
+    /**
+     * @return the key of the current content of the JSON file, null when it cannot be read
+     */
+    @Nullable
+    public Key keyOf(@NotNull final File jsonFile) {
+        try {
+            final Path path = jsonFile.toPath().toAbsolutePath().normalize();
+            final long size = Files.size(path);
+            final long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+            final CRC32C crc = new CRC32C();
+            final byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = Files.newInputStream(path)) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                }
+            }
+            return new Key(path.toString(), size, lastModified, (int) crc.getValue());
+        } catch (IOException e) {
+            if (LOG.isDebugEnabled()) LOG.debug("Cannot compute cache key of " + jsonFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the cached debts of the JSON file identified by the key, null when there is no valid entry
+     */
+    @Nullable
+    public List<DebtItem> read(@NotNull final Key key) {
+        final Path cacheFile = cacheFileOf(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != ENUMS_FINGERPRINT) {
+                return null;
+            }
+            final Key cachedKey = new Key(in.readUTF(), in.readLong(), in.readLong(), in.readInt());
+            if (!cachedKey.equals(key)) {
+                if (LOG.isDebugEnabled()) LOG.debug("Stale debt cache for " + key.path());
+                return null;
+            }
+
+            final String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            final int count = in.readInt();
+            final List<DebtItem> debts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                debts.add(readItem(in, strings));
+            }
+            if (LOG.isDebugEnabled()) LOG.debug("Read %s debts from cache %s".formatted(count, cacheFile));
+            return debts;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Ignoring unreadable debt cache " + cacheFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the debts read from (or written to) the JSON file identified by the key.
+     */
+    public void write(@NotNull final Key key, @NotNull final List<DebtItem> debts) {
+        final Path cacheFile = cacheFileOf(key);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheDirectory);
+
+            final Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+            for (DebtItem debtItem : debts) {
+                for (String string : stringsOf(debtItem)) {
+                    stringIndexes.putIfAbsent(string, stringIndexes.size());
+                }
+            }
+
+            tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(ENUMS_FINGERPRINT);
+                out.writeUTF(key.path());
+                out.writeLong(key.size());
+                out.writeLong(key.lastModified());
+                out.writeInt(key.checksum());
+
+                out.writeInt(stringIndexes.size());
+                for (String string : stringIndexes.keySet()) {
+                    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+
+                out.writeInt(debts.size());
+                for (DebtItem debtItem : debts) {
+                    writeItem(out, debtItem, stringIndexes);
+                }
+            }
+
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException e) {
+            LOG.warn("Failed to write debt cache " + cacheFile + ": " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private Path cacheFileOf(final Key key) {
+        return cacheDirectory.resolve(UUID.nameUUIDFromBytes(key.path().getBytes(StandardCharsets.UTF_8)) + ".bin");
+    }
+
+    private static List<String> stringsOf(final DebtItem debtItem) {
+        final List<String> strings = new ArrayList<>(List.of(
+                debtItem.getId(),
+                debtItem.getFile(),
+                debtItem.getTitle(),
+                debtItem.getDescription(),
+                debtItem.getUsername(),
+                debtItem.getPriority(),
+                debtItem.getTargetVersion(),
+                debtItem.getComment(),
+                debtItem.getJira(),
+                debtItem.getCurrentModule(),
+                debtItem.getType()));
+        strings.addAll(debtItem.getLinksView().keySet());
+        return strings;
+    }
+
+    private static void writeItem(final DataOutputStream out, final DebtItem debtItem, final Map<String, Integer> stringIndexes) throws IOException {
+        out.writeInt(stringIndexes.get(debtItem.getId()));
+        out.writeInt(stringIndexes.get(debtItem.getFile()));
+        out.writeInt(debtItem.getLine());
+        out.writeInt(stringIndexes.get(debtItem.getTitle()));
+        out.writeInt(stringIndexes.get(debtItem.getDescription()));
+        out.writeInt(stringIndexes.get(debtItem.getUsername()));
+        out.writeInt(debtItem.getWantedLevel());
+        out.writeByte(debtItem.getComplexity().ordinal());
+        out.writeByte(debtItem.getStatus().ordinal());
+        out.writeInt(stringIndexes.get(debtItem.getPriority()));
+        out.writeByte(debtItem.getRisk().ordinal());
+        out.writeInt(stringIndexes.get(debtItem.getTargetVersion()));
+        out.writeInt(stringIndexes.get(debtItem.getComment()));
+        out.writeInt(debtItem.getEstimation());
+        out.writeInt(stringIndexes.get(debtItem.getJira()));
+        out.writeInt(stringIndexes.get(debtItem.getCurrentModule()));
+        out.writeInt(stringIndexes.get(debtItem.getType()));
+        out.writeLong(debtItem.getCreationDate());
+        out.writeLong(debtItem.getUpdateDate());
+
+        final Map<String, Relationship> links = debtItem.getLinksView();
+        out.writeInt(links.size());
+        for (Map.Entry<String, Relationship> link : links.entrySet()) {
+            out.writeInt(stringIndexes.get(link.getKey()));
+            out.writeByte(link.getValue().ordinal());
+        }
+    }
+
+    private static DebtItem readItem(final DataInputStream in, final String[] strings) throws IOException {
+        // Same field order as writeItem; newBuilder(false) keeps the stored update date
+        final DebtItem.Builder builder = DebtItem.newBuilder(false)
+                .withId(strings[in.readInt()])
+                .withFile(strings[in.readInt()])
+                .withLine(in.readInt())
+                .withTitle(strings[in.readInt()])
+                .withDescription(strings[in.readInt()])
+                .withUsername(strings[in.readInt()])
+                .withWantedLevel(in.readInt())
+                .withComplexity(Complexity.values()[in.readByte()])
+                .withStatus(Status.values()[in.readByte()])
+                .withPriority(strings[in.readInt()])
+                .withRisk(Risk.values()[in.readByte()])
+                .withTargetVersion(strings[in.readInt()])
+                .withComment(strings[in.readInt()])
+                .withEstimation(in.readInt())
+                .withJira(strings[in.readInt()])
+                .withCurrentModule(strings[in.readInt()])
+                .withType(strings[in.readInt()])
+                .withCreateDate(in.readLong())
+                .withUpdateDate(in.readLong());
+
+        final int linkCount = in.readInt();
+        final Map<String, Relationship> links = new LinkedHashMap<>();
+        for (int i = 0; i < linkCount; i++) {
+            links.put(strings[in.readInt()], Relationship.values()[in.readByte()]);
+        }
+        return builder.withLinks(links).build();
+    }
+}
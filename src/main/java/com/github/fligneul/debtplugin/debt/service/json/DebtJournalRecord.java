@@ -0,0 +1,26 @@
+package com.github.fligneul.debtplugin.debt.service.json;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single mutation appended to the journal of a debt file: the new state of a debt, or its removal.
+ *
+ * @param id       id of the debt
+ * @param debtItem new state of the debt, null when it has been removed
+ */
+public record DebtJournalRecord(@NotNull String id, @Nullable DebtItem debtItem) {
+
+    public static DebtJournalRecord upsert(@NotNull final DebtItem debtItem) {
+        return new DebtJournalRecord(debtItem.getId(), debtItem);
+    }
+
+    public static DebtJournalRecord delete(@NotNull final String id) {
+        return new DebtJournalRecord(id, null);
+    }
+
+    public boolean isDelete() {
+        return debtItem == null;
+    }
+}
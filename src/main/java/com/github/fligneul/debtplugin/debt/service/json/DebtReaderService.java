@@ -1,35 +1,126 @@
 package com.github.fligneul.debtplugin.debt.service.json;
 
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class DebtReaderService extends ADebtSerializer {
     private static final Logger LOG = Logger.getInstance(DebtReaderService.class);
 
     public List<DebtItem> readDebts(final File jsonFile) {
+        return readDebts(jsonFile, null);
+    }
+
+    public List<DebtItem> readDebts(final File jsonFile, @Nullable final ProgressIndicator indicator) {
+        final List<DebtItem> debts = new ArrayList<>();
+        readDebts(jsonFile, debts::add, indicator);
+        return debts;
+    }
+
+    /**
+     * Stream the JSON array of the given file and hand each decoded item to the consumer as soon as it is read,
+     * so only one item is materialized at a time. The indicator (if any) receives the read fraction and is
+     * checked for cancellation between items.
+     *
+     * @return true when the whole file has been read, false when it could not be read or is malformed (the items read
+     * before the error have been handed to the consumer)
+     */
+    public boolean readDebts(final File jsonFile, final Consumer<DebtItem> consumer, @Nullable final ProgressIndicator indicator) {
         LOG.info("Loading debts from repo file: " + jsonFile.getAbsolutePath());
-        try {
-            final String content = Files.readString(jsonFile.toPath(), StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(jsonFile.toPath(), StandardOpenOption.READ);
+             JsonReader reader = gson.newJsonReader(new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8)))) {
+            final long size = channel.size();
+            if (size == 0 || reader.peek() == JsonToken.NULL) {
+                return true;
+            }
 
-            final Type type = new TypeToken<List<DebtItem>>() {
-            }.getType();
+            int count = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                    indicator.setFraction((double) channel.position() / size);
+                }
 
-            final List<DebtItem> loaded = gson.fromJson(content, type);
+                final DebtItem debtItem = gson.fromJson(reader, DebtItem.class);
+                if (debtItem != null) {
+                    consumer.accept(debtItem);
+                    count++;
+                }
+            }
+            reader.endArray();
 
-            return loaded == null
-                    ? List.of()
-                    : loaded;
+            if (LOG.isDebugEnabled()) LOG.debug("Streamed %s debts from %s".formatted(count, jsonFile.getAbsolutePath()));
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            // IllegalStateException: valid JSON that is not an array of debts
+            LOG.warn("Failed loading debts from repo file: " + jsonFile.getAbsolutePath() + ": " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Apply the journal of the given debt file (if any) to the debts read from that file, in append order.
+     * Malformed lines, left by an interrupted append, are skipped.
+     *
+     * @return the number of records applied
+     */
+    public int replayJournal(final File jsonFile, final List<DebtItem> debts) {
+        final File journalFile = journalFileOf(jsonFile);
+        if (!journalFile.isFile()) {
+            return 0;
+        }
+
+        final Map<String, DebtItem> debtsById = new LinkedHashMap<>();
+        debts.forEach(debtItem -> debtsById.put(debtItem.getId(), debtItem));
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    final JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                    if (JOURNAL_OP_DELETE.equals(json.get(JOURNAL_OP).getAsString())) {
+                        debtsById.remove(json.get(JOURNAL_ID).getAsString());
+                    } else {
+                        // Updated debts keep their position, new ones are appended
+                        final DebtItem debtItem = gson.fromJson(json.get(JOURNAL_DEBT), DebtItem.class);
+                        debtsById.put(debtItem.getId(), debtItem);
+                    }
+                    count++;
+                } catch (RuntimeException e) {
+                    LOG.warn("Skipping malformed journal record in " + journalFile + ": " + e.getMessage());
+                }
+            }
         } catch (IOException e) {
-            LOG.error("Failed loading debts from repo file: " + jsonFile.getAbsolutePath(), e);
-            return List.of();
+            LOG.error("Failed replaying debt journal: " + journalFile, e);
+        }
+
+        if (count > 0) {
+            debts.clear();
+            debts.addAll(debtsById.values());
+            LOG.info("Replayed %s journal record(s) from %s".formatted(count, journalFile));
         }
+        return count;
     }
 }
@@ -1,34 +1,160 @@
 package com.github.fligneul.debtplugin.debt.service.json;
 
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import com.intellij.openapi.diagnostic.Logger;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.UUID;
 
 public class DebtWriterService extends ADebtSerializer {
 
     private static final Logger LOG = Logger.getInstance(DebtWriterService.class);
 
+    /**
+     * Stream the given value (usually the debt list of a repository) to a temporary file next to the target,
+     * fsync it and atomically rename it over the target. A crash while writing leaves the previous file untouched.
+     */
     public boolean write(final File jsonAbsolutePathFile, final Object toWrite) {
         final Path jsonPath = jsonAbsolutePathFile.toPath();
         final String jsonAbsolutePathStr = jsonAbsolutePathFile.getAbsolutePath();
 
-        final String json = gson.toJson(toWrite);
-
+        Path tempPath = null;
         try {
             final File parentFolder = jsonPath.getParent().toFile();
             if (!parentFolder.exists()) {
                 parentFolder.mkdirs();
             }
-            Files.writeString(jsonPath, json, StandardCharsets.UTF_8);
+
+            // Same directory so the final rename stays on one file store; CREATE_NEW keeps the default file permissions
+            tempPath = jsonPath.resolveSibling(jsonPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                final BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+                final JsonWriter jsonWriter = gson.newJsonWriter(writer);
+                writeValue(jsonWriter, toWrite);
+                jsonWriter.flush();
+
+                channel.force(true);
+            }
+
+            moveOver(tempPath, jsonPath);
+            tempPath = null;
 
             return true;
         } catch (IOException io) {
             LOG.warn("Failed to write repo debts. path=" + jsonAbsolutePathStr + " message=" + io.getMessage(), io);
             return false;
+        } finally {
+            if (tempPath != null) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Append the records to the journal of the given debt file, one line each, and fsync it.
+     * The debt file itself is not touched; a crash can only lose the record being appended.
+     */
+    public boolean appendJournal(final File jsonAbsolutePathFile, final Collection<DebtJournalRecord> records) {
+        final Path journalPath = journalFileOf(jsonAbsolutePathFile).toPath();
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            final BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel.position(size), StandardCharsets.UTF_8));
+            if (size > 0 && !endsWithNewLine(channel, size)) {
+                // Previous append was interrupted: keep its partial line apart from the new records
+                writer.write('\n');
+            }
+            for (DebtJournalRecord record : records) {
+                writer.write(toJournalLine(record));
+                writer.write('\n');
+            }
+            writer.flush();
+
+            channel.force(false);
+            return true;
+        } catch (IOException io) {
+            LOG.warn("Failed to append to debt journal. path=" + journalPath + " message=" + io.getMessage(), io);
+            return false;
+        }
+    }
+
+    /**
+     * @return the size in bytes of the journal of the given debt file, 0 when there is none
+     */
+    public long journalLength(final File jsonAbsolutePathFile) {
+        return journalFileOf(jsonAbsolutePathFile).length();
+    }
+
+    /**
+     * Delete the journal of the given debt file, once the debt file contains all its records.
+     */
+    public void deleteJournal(final File jsonAbsolutePathFile) {
+        final File journalFile = journalFileOf(jsonAbsolutePathFile);
+        try {
+            Files.deleteIfExists(journalFile.toPath());
+        } catch (IOException io) {
+            LOG.warn("Failed to delete debt journal. path=" + journalFile + " message=" + io.getMessage(), io);
+        }
+    }
+
+    private String toJournalLine(final DebtJournalRecord record) {
+        final JsonObject json = new JsonObject();
+        if (record.isDelete()) {
+            json.addProperty(JOURNAL_OP, JOURNAL_OP_DELETE);
+            json.addProperty(JOURNAL_ID, record.id());
+        } else {
+            json.addProperty(JOURNAL_OP, JOURNAL_OP_UPSERT);
+            json.add(JOURNAL_DEBT, gson.toJsonTree(record.debtItem()));
+        }
+        // JsonElement.toString() is compact: a record never spans several lines
+        return json.toString();
+    }
+
+    private static boolean endsWithNewLine(final FileChannel channel, final long size) throws IOException {
+        final ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    private void writeValue(final JsonWriter jsonWriter, final Object toWrite) throws IOException {
+        if (!(toWrite instanceof Collection<?> collection)) {
+            gson.toJson(toWrite, toWrite == null ? Object.class : toWrite.getClass(), jsonWriter);
+            return;
+        }
+
+        // Encode element by element so the whole document never exists as a single String
+        jsonWriter.beginArray();
+        for (Object element : collection) {
+            if (element == null) {
+                jsonWriter.nullValue();
+            } else {
+                gson.toJson(element, element.getClass(), jsonWriter);
+            }
+        }
+        jsonWriter.endArray();
+    }
+
+    private static void moveOver(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            LOG.debug("Atomic move not supported for " + target + ", falling back to a plain replace");
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 }
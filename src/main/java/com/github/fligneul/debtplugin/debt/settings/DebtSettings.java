@@ -55,6 +55,12 @@ public final class DebtSettings implements PersistentStateComponent<DebtSettings
         public EChart chartType = DEFAULT_CHART_TYPE;
         public EClassifiers chartClassifier = EClassifiers.DEFAULT;
         public Integer chartDisplayLimitValues = CHART_DISPLAY_LIMIT_VALUES_DEFAULT;
+        // Keep a binary copy of the debt files in the IDE cache to speed up project opening
+        public Boolean debtCacheEnabled = true;
+        // Append debt changes to a journal next to each debt file, folded into the file from time to time
+        public Boolean debtJournalEnabled = false;
+        // Draw the debt gutter icons as editor highlighters, updated without restarting the code analysis
+        public Boolean debtHighlightersEnabled = false;
 
         public State() {
         }
@@ -147,6 +153,30 @@ public final class DebtSettings implements PersistentStateComponent<DebtSettings
         public void setChartClassifier(EClassifiers chartClassifier) {
             this.chartClassifier = chartClassifier;
         }
+
+        public boolean isDebtCacheEnabled() {
+            return debtCacheEnabled;
+        }
+
+        public void setDebtCacheEnabled(boolean debtCacheEnabled) {
+            this.debtCacheEnabled = debtCacheEnabled;
+        }
+
+        public boolean isDebtJournalEnabled() {
+            return debtJournalEnabled;
+        }
+
+        public void setDebtJournalEnabled(boolean debtJournalEnabled) {
+            this.debtJournalEnabled = debtJournalEnabled;
+        }
+
+        public boolean isDebtHighlightersEnabled() {
+            return debtHighlightersEnabled;
+        }
+
+        public void setDebtHighlightersEnabled(boolean debtHighlightersEnabled) {
+            this.debtHighlightersEnabled = debtHighlightersEnabled;
+        }
     }
 
     private State myState = new State();
@@ -183,6 +213,18 @@ public final class DebtSettings implements PersistentStateComponent<DebtSettings
         if (myState.chartClassifier == null) {
             myState.chartClassifier = EClassifiers.DEFAULT;
         }
+
+        if (myState.debtCacheEnabled == null) {
+            myState.debtCacheEnabled = true;
+        }
+
+        if (myState.debtJournalEnabled == null) {
+            myState.debtJournalEnabled = false;
+        }
+
+        if (myState.debtHighlightersEnabled == null) {
+            myState.debtHighlightersEnabled = false;
+        }
         return myState;
     }
 
@@ -200,6 +242,9 @@ public final class DebtSettings implements PersistentStateComponent<DebtSettings
         if (myState.chartType == null) myState.chartType = DEFAULT_CHART_TYPE;
         if (myState.chartDisplayLimitValues == null) myState.chartDisplayLimitValues = CHART_DISPLAY_LIMIT_VALUES_DEFAULT;
         if (myState.chartClassifier == null) myState.chartClassifier = EClassifiers.DEFAULT;
+        if (myState.debtCacheEnabled == null) myState.debtCacheEnabled = true;
+        if (myState.debtJournalEnabled == null) myState.debtJournalEnabled = false;
+        if (myState.debtHighlightersEnabled == null) myState.debtHighlightersEnabled = false;
     }
 
     public String getOrInitUsername() {
@@ -57,6 +57,9 @@ public class DebtSettingsConfigurable implements Configurable {
     private final Map<String, JCheckBox> creationChecks = new LinkedHashMap<>(); // name -> checkbox
     private final JBTextField datePatternField;
     private final JBTextField maxCharField;
+    private final JCheckBox debtCacheCheckBox = new JCheckBox("Cache debt files to speed up project opening");
+    private final JCheckBox debtJournalCheckBox = new JCheckBox("Journal debt changes instead of rewriting the debt files");
+    private final JCheckBox debtHighlightersCheckBox = new JCheckBox("Draw debt icons with editor highlighters instead of restarting code analysis");
 
     // Chart
     private final JBTextField chartLimit = new JBTextField(5);
@@ -111,6 +114,10 @@ public class DebtSettingsConfigurable implements Configurable {
         chartLimitPanel.add(chartLimit);
         chartLimit.setText(String.valueOf(settings.getState().getChartDisplayLimitValues()));
 
+        debtCacheCheckBox.setSelected(settings.getState().isDebtCacheEnabled());
+        debtJournalCheckBox.setSelected(settings.getState().isDebtJournalEnabled());
+        debtHighlightersCheckBox.setSelected(settings.getState().isDebtHighlightersEnabled());
+
         final JPanel chartClassifierPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 2));
         chartClassifierPanel.add(new JLabel("Chart Classifier:"));
         final ButtonGroup classifierButtonGroup = new ButtonGroup();
@@ -139,6 +146,9 @@ public class DebtSettingsConfigurable implements Configurable {
                 .addSeparator()
                 .addLabeledComponent("DatePattern:", datePatternField)
                 .addLabeledComponent("Max char table's textArea :", maxCharField)
+                .addComponent(debtCacheCheckBox)
+                .addComponent(debtJournalCheckBox)
+                .addComponent(debtHighlightersCheckBox)
                 .addSeparator()
                 .addLabeledComponent("Chart :", chartContainer)
                 .getPanel();
@@ -264,6 +274,10 @@ public class DebtSettingsConfigurable implements Configurable {
 
         if (settings.getState().getChartDisplayLimitValues() != Integer.parseInt(chartLimit.getText())) return true;
 
+        if (settings.getState().isDebtCacheEnabled() != debtCacheCheckBox.isSelected()) return true;
+        if (settings.getState().isDebtJournalEnabled() != debtJournalCheckBox.isSelected()) return true;
+        if (settings.getState().isDebtHighlightersEnabled() != debtHighlightersCheckBox.isSelected()) return true;
+
         return settings.getState().getChartClassifier() != getSelectedClassifier();
     }
 
@@ -310,6 +324,9 @@ public class DebtSettingsConfigurable implements Configurable {
         settings.getState().setChartType(getSelectedChartType());
         settings.getState().setChartDisplayLimitValues(Integer.parseInt(chartLimit.getText()));
         settings.getState().setChartClassifier(getSelectedClassifier());
+        settings.getState().setDebtCacheEnabled(debtCacheCheckBox.isSelected());
+        settings.getState().setDebtJournalEnabled(debtJournalCheckBox.isSelected());
+        settings.getState().setDebtHighlightersEnabled(debtHighlightersCheckBox.isSelected());
 
         // Notify listeners
         project.getMessageBus().syncPublisher(DebtSettings.TOPIC).settingsChanged(settings.getState());
@@ -354,6 +371,9 @@ public class DebtSettingsConfigurable implements Configurable {
         chartTypeButtons.forEach((type, button) -> button.setSelected(type == settings.getState().getChartType()));
         classifierButtons.forEach((classifier, button) -> button.setSelected(classifier == settings.getState().getChartClassifier()));
         chartLimit.setText(String.valueOf(settings.getState().getChartDisplayLimitValues()));
+        debtCacheCheckBox.setSelected(settings.getState().isDebtCacheEnabled());
+        debtJournalCheckBox.setSelected(settings.getState().isDebtJournalEnabled());
+        debtHighlightersCheckBox.setSelected(settings.getState().isDebtHighlightersEnabled());
 
         columnsPanel.revalidate();
         columnsPanel.repaint();
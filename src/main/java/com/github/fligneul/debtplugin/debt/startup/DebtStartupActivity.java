@@ -0,0 +1,26 @@
+package com.github.fligneul.debtplugin.debt.startup;
+
+import com.github.fligneul.debtplugin.debt.glutter.DebtHighlighterService;
+import com.github.fligneul.debtplugin.debt.service.DebtAnchorService;
+import com.github.fligneul.debtplugin.debt.service.DebtService;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Starts loading the debts in background once the project is opened, so neither the EDT nor the
+ * highlighting daemon wait for the debt files to be parsed.
+ */
+public class DebtStartupActivity implements StartupActivity.DumbAware {
+    private static final Logger LOG = Logger.getInstance(DebtStartupActivity.class);
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        if (LOG.isDebugEnabled()) LOG.debug("Project opened, loading debts in background");
+        // Created first, so the files already open are anchored once the debts are loaded
+        project.getService(DebtAnchorService.class);
+        project.getService(DebtHighlighterService.class);
+        project.getService(DebtService.class).loadDebtsInBackground(false);
+    }
+}
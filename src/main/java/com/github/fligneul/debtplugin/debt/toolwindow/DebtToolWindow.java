@@ -1,5 +1,6 @@
 package com.github.fligneul.debtplugin.debt.toolwindow;
 
+import com.github.fligneul.debtplugin.debt.service.DebtChangeEvent;
 import com.github.fligneul.debtplugin.debt.service.DebtService;
 import com.github.fligneul.debtplugin.debt.service.DebtServiceListener;
 import com.github.fligneul.debtplugin.debt.settings.DebtSettings;
@@ -45,6 +46,14 @@ public class DebtToolWindow extends JPanel {
                 if (LOG.isDebugEnabled()) LOG.debug("Refresh requested from toolwindow");
                 update(false);
             }
+
+            @Override
+            public void debtsChanged(DebtChangeEvent event) {
+                if (LOG.isDebugEnabled()) LOG.debug("Applying debt changes to the toolwindow: " + event);
+                debtTableContainer.applyChanges(event);
+                debtChartContainer.applyChanges(event);
+                relationshipGraphPanel.applyChanges(event);
+            }
         });
     }
 
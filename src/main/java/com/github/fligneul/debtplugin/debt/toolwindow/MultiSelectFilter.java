@@ -57,6 +57,10 @@ public class MultiSelectFilter<T> extends JPanel {
         updateButtonText();
     }
 
+    public boolean hasOption(T option) {
+        return options.contains(option);
+    }
+
     public Set<T> getSelected() {
         return new LinkedHashSet<>(selected);
     }
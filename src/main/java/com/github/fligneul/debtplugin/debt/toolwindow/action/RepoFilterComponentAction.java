@@ -55,7 +55,7 @@ public class RepoFilterComponentAction extends AnAction implements CustomCompone
                 providerService.updateRepositories(selectedRepositories);
 
                 final DebtService debtService = project.getService(DebtService.class);
-                debtService.refresh();
+                debtService.refreshViews();
             });
         }
         return filter;
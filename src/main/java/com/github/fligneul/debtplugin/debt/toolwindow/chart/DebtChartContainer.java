@@ -1,5 +1,6 @@
 package com.github.fligneul.debtplugin.debt.toolwindow.chart;
 
+import com.github.fligneul.debtplugin.debt.service.DebtChangeEvent;
 import com.github.fligneul.debtplugin.debt.settings.DebtSettings;
 import com.github.fligneul.debtplugin.debt.toolwindow.chart.panel.AChartPanel;
 import com.github.fligneul.debtplugin.debt.toolwindow.chart.panel.EChart;
@@ -48,4 +49,8 @@ public class DebtChartContainer extends JPanel {
     public void updateChart() {
         filter.updateFilters();
     }
+
+    public void applyChanges(final DebtChangeEvent event) {
+        filter.applyChanges(event);
+    }
 }
@@ -4,6 +4,8 @@ import com.github.fligneul.debtplugin.debt.model.Complexity;
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.model.Risk;
 import com.github.fligneul.debtplugin.debt.model.Status;
+import com.github.fligneul.debtplugin.debt.service.DebtChange;
+import com.github.fligneul.debtplugin.debt.service.DebtChangeEvent;
 import com.github.fligneul.debtplugin.debt.service.DebtProviderService;
 import com.github.fligneul.debtplugin.debt.service.DebtService;
 import com.github.fligneul.debtplugin.debt.settings.DebtSettings;
@@ -22,6 +24,7 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
@@ -261,30 +264,46 @@ public class DebtChartFilter extends JPanel {
         filterValues();
     }
 
+    /**
+     * Apply the changes to the charts without recounting all the displayed debts.
+     */
+    public void applyChanges(final DebtChangeEvent event) {
+        final List<DebtItem> removedItems = new ArrayList<>();
+        final List<DebtItem> addedItems = new ArrayList<>();
+        for (DebtChange change : event.getChanges()) {
+            if (!debtProviderService.isDisplayed(change.getRepoRoot())) continue;
+
+            final DebtItem oldItem = change.getOldItem();
+            final DebtItem newItem = change.getNewItem();
+            if (newItem != null && !hasOptionsFor(newItem)) {
+                // A new value must be offered in the filters: rebuild them with the charts
+                updateFilters();
+                return;
+            }
+            if (oldItem != null && matchesFilters(oldItem)) removedItems.add(oldItem);
+            if (newItem != null && matchesFilters(newItem)) addedItems.add(newItem);
+        }
+
+        if (removedItems.isEmpty() && addedItems.isEmpty()) return;
+
+        Stream.of(EChart.values())
+                .map(eChart -> eChart.getChartInstance(this.debtSettings))
+                .forEach(chartPanel -> chartPanel.applyDelta(removedItems, addedItems));
+    }
+
+    private boolean hasOptionsFor(final DebtItem debtItem) {
+        final String module = debtItem.getCurrentModule();
+        return priorityFilterChart.hasOption(debtItem.getPriority())
+                && typeFilterChart.hasOption(debtItem.getType())
+                && wantedLevelFilterChart.hasOption(debtItem.getWantedLevel())
+                && estimationFilterChart.hasOption(debtItem.getEstimation())
+                && moduleFilterChart.hasOption(module == null || module.isBlank() ? "Unknown" : module);
+    }
+
     private void filterValues() {
         final List<DebtItem> items = debtProviderService.currentItems()
                 .stream()
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getFile, fileFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getTitle, titleFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getDescription, descFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getUsername, userFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getWantedLevel, wantedLevelFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getComplexity, complexityFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getStatus, statusFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getPriority, priorityFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getType, typeFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getRisk, riskFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getTargetVersion, targetVersionFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getComment, commentFilterChart))
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getEstimation, estimationFilterChart))
-                .filter(debtItem -> {
-                    return chartFilterContaining(debtItem, currentItem -> {
-                        return "".equals(currentItem.getCurrentModule())
-                                ? "Unknown"
-                                : currentItem.getCurrentModule();
-                    }, moduleFilterChart);
-                })
-                .filter(debtItem -> chartFilterContaining(debtItem, DebtItem::getJira, jiraFilterChart))
+                .filter(this::matchesFilters)
                 .toList();
 
         Stream.of(EChart.values())
@@ -299,6 +318,28 @@ public class DebtChartFilter extends JPanel {
 
     }
 
+    private boolean matchesFilters(final DebtItem debtItem) {
+        return chartFilterContaining(debtItem, DebtItem::getFile, fileFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getTitle, titleFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getDescription, descFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getUsername, userFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getWantedLevel, wantedLevelFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getComplexity, complexityFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getStatus, statusFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getPriority, priorityFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getType, typeFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getRisk, riskFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getTargetVersion, targetVersionFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getComment, commentFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getEstimation, estimationFilterChart)
+                && chartFilterContaining(debtItem, currentItem -> {
+                    return "".equals(currentItem.getCurrentModule())
+                            ? "Unknown"
+                            : currentItem.getCurrentModule();
+                }, moduleFilterChart)
+                && chartFilterContaining(debtItem, DebtItem::getJira, jiraFilterChart);
+    }
+
 
     private <T> boolean chartFilterContaining(final DebtItem debtItem, final Function<DebtItem, T> getterFct, final MultiSelectFilter<T> filter) {
         return filter.getSelected().isEmpty() || filter.getSelected()
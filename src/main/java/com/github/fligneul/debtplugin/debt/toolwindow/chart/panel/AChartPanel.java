@@ -8,15 +8,18 @@ import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public abstract class AChartPanel extends JPanel implements IChartsPanel {
 
     protected final List<ChartModel> data = new ArrayList<>();
+    // Number of items per group, kept so changes can be applied without recounting every item
+    private final Map<String, Integer> counts = new TreeMap<>();
     protected String title;
     protected EClassifiers groupBy;
+    private int limit;
 
     public AChartPanel(final EClassifiers chartClassifier) {
         setOpaque(true);
@@ -32,18 +35,39 @@ public abstract class AChartPanel extends JPanel implements IChartsPanel {
 
     @Override
     public void setData(List<DebtItem> items, final int limit) {
+        this.limit = limit;
+
+        final Function<DebtItem, String> classifier = classifier();
+        counts.clear();
+        items.forEach(item -> counts.merge(classifier.apply(item), 1, Integer::sum));
+
+        updateData();
+    }
+
+    @Override
+    public void applyDelta(List<DebtItem> removedItems, List<DebtItem> addedItems) {
+        final Function<DebtItem, String> classifier = classifier();
+        removedItems.forEach(item -> counts.computeIfPresent(classifier.apply(item), (group, count) -> count > 1 ? count - 1 : null));
+        addedItems.forEach(item -> counts.merge(classifier.apply(item), 1, Integer::sum));
+
+        updateData();
+    }
+
+    private void updateData() {
         data.clear();
 
-        this.data.addAll(extractData(items)
+        this.data.addAll(counts.entrySet()
                 .stream()
+                .map(entry -> new ChartModel(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(ChartModel::nbValues).reversed())
                 .limit(limit)
                 .toList());
         revalidate();
         repaint();
     }
 
-    private List<ChartModel> extractData(List<DebtItem> items) {
-        final Function<DebtItem, String> classifier = switch (groupBy) {
+    private Function<DebtItem, String> classifier() {
+        return switch (groupBy) {
             case WantedLevel -> item -> String.valueOf(item.getWantedLevel());
             case Complexity -> item -> String.valueOf(item.getComplexity());
             case Status -> item -> String.valueOf(item.getStatus());
@@ -60,14 +84,6 @@ public abstract class AChartPanel extends JPanel implements IChartsPanel {
                     ? "Unknown"
                     : debtItem.getType();
         };
-
-        return items.stream()
-                .collect(Collectors.groupingBy(classifier, TreeMap::new, Collectors.summingInt(e -> 1)))
-                .entrySet()
-                .stream()
-                .map(entry -> new ChartModel(entry.getKey(), entry.getValue()))
-                .sorted(Comparator.comparing(ChartModel::nbValues).reversed())
-                .toList();
     }
 
     protected record ChartModel(String name, int nbValues) {
@@ -9,4 +9,9 @@ public interface IChartsPanel {
     void setGroupBy(EClassifiers groupByField);
 
     void setData(List<DebtItem> items, final int limit);
+
+    /**
+     * Update the data previously given to {@link #setData(List, int)}: removed items are no longer counted, added ones are.
+     */
+    void applyDelta(List<DebtItem> removedItems, List<DebtItem> addedItems);
 }
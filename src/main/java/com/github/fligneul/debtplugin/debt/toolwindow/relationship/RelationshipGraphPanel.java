@@ -2,6 +2,8 @@ package com.github.fligneul.debtplugin.debt.toolwindow.relationship;
 
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.model.Relationship;
+import com.github.fligneul.debtplugin.debt.service.DebtChange;
+import com.github.fligneul.debtplugin.debt.service.DebtChangeEvent;
 import com.github.fligneul.debtplugin.debt.service.DebtProviderService;
 import com.intellij.openapi.project.Project;
 import com.intellij.ui.JBColor;
@@ -37,7 +39,7 @@ public class RelationshipGraphPanel extends JPanel {
         // Only keep items that have at least one link
         final List<DebtItem> debtsWithLinks = debtProviderService.currentItems()
                 .stream()
-                .filter(debtItem -> !debtItem.getLinks().isEmpty())
+                .filter(debtItem -> !debtItem.getLinksView().isEmpty())
                 .toList();
 
         final List<DebtItem> linked = debtProviderService.currentItems()
@@ -55,6 +57,36 @@ public class RelationshipGraphPanel extends JPanel {
         repaint();
     }
 
+    /**
+     * Apply the changes: debts without links stay out of the graph and a renamed node is only repainted,
+     * the graph is rebuilt only when nodes or edges change.
+     */
+    public void applyChanges(final DebtChangeEvent event) {
+        boolean graphChanged = false;
+        boolean nodeChanged = false;
+        for (DebtChange change : event.getChanges()) {
+            final DebtItem oldItem = change.getOldItem();
+            final DebtItem newItem = change.getNewItem();
+            final boolean inGraph = oldItem != null && nodePositions.containsKey(oldItem.getId());
+            final boolean hasLinks = (oldItem != null && !oldItem.getLinksView().isEmpty())
+                    || (newItem != null && !newItem.getLinksView().isEmpty());
+            if (!inGraph && !hasLinks) continue;
+
+            if (inGraph && change.getType() == DebtChange.Type.UPDATE && oldItem.getLinksView().equals(newItem.getLinksView())) {
+                items.replaceAll(item -> item.getId().equals(newItem.getId()) ? newItem : item);
+                nodeChanged = true;
+            } else {
+                graphChanged = true;
+            }
+        }
+
+        if (graphChanged) {
+            update();
+        } else if (nodeChanged) {
+            repaint();
+        }
+    }
+
     private void calculateLayout() {
         nodePositions.clear();
         if (items.isEmpty()) return;
@@ -101,7 +133,7 @@ public class RelationshipGraphPanel extends JPanel {
             Point start = nodePositions.get(item.getId());
             if (start == null) continue;
 
-            Map<String, Relationship> links = item.getLinks();
+            Map<String, Relationship> links = item.getLinksView();
             for (Map.Entry<String, Relationship> entry : links.entrySet()) {
                 String targetId = entry.getKey();
                 Relationship rel = entry.getValue();
@@ -57,7 +57,6 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -322,6 +321,11 @@ public class DebtTable extends JBTable {
         }
     }
 
+    public void adjustRowHeightForModelRow(int modelRow) {
+        if (modelRow < 0) return;
+        adjustRowHeightFor(this.convertRowIndexToView(modelRow));
+    }
+
     private void adjustAllRowsHeight() {
         int rc = this.getRowCount();
         for (int r = 0; r < rc; r++) adjustRowHeightFor(r);
@@ -430,12 +434,7 @@ public class DebtTable extends JBTable {
                         if (relPath.isAbsolute()) {
                             absolutePath = relPath.toAbsolutePath().normalize().toString();
                         } else {
-                            final Map<Repository, List<DebtItem>> debtsByRepository = debtService.getDebtsByRepository();
-                            final String repoRoot = debtsByRepository.entrySet()
-                                    .stream()
-                                    .filter(entry -> entry.getValue().contains(debtItem))
-                                    .findFirst()
-                                    .map(Map.Entry::getKey)
+                            final String repoRoot = debtService.findRepository(debtItem)
                                     .map(Repository::getRepositoryAbsolutePath)
                                     .orElseThrow();
 
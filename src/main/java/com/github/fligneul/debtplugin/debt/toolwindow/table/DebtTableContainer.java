@@ -2,19 +2,24 @@ package com.github.fligneul.debtplugin.debt.toolwindow.table;
 
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.service.ColumnService;
+import com.github.fligneul.debtplugin.debt.service.DebtChange;
+import com.github.fligneul.debtplugin.debt.service.DebtChangeEvent;
 import com.github.fligneul.debtplugin.debt.service.DebtProviderService;
 import com.github.fligneul.debtplugin.debt.service.DebtService;
 import com.github.fligneul.debtplugin.debt.service.DebtServiceSelectionListener;
 import com.intellij.openapi.project.Project;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.ui.StatusText;
 
 import javax.swing.JPanel;
 import javax.swing.table.TableRowSorter;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.LayoutManager;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.function.Consumer;
 
@@ -64,17 +69,24 @@ public class DebtTableContainer extends JPanel {
     }
 
     public void updateTable(final boolean refreshColumnVisiblity) {
+        table.getEmptyText().setText(debtService.isLoaded() ? StatusText.getDefaultEmptyText() : "Loading debts...");
         table.updateTable(refreshColumnVisiblity);
 
         table.getTableModel().clearAll();
+        for (DebtItem item : debtProviderService.currentItems()) {
+            table.getTableModel().addDebtItem(item);
+        }
 
+        updateFilters();
+    }
+
+    private void updateFilters() {
         final TreeSet<String> priorities = new TreeSet<>(Comparator.naturalOrder());
         final TreeSet<String> types = new TreeSet<>(Comparator.naturalOrder());
         final TreeSet<Integer> wantedLevels = new TreeSet<>(Comparator.naturalOrder());
         final TreeSet<Integer> estimations = new TreeSet<>(Comparator.naturalOrder());
 
         for (DebtItem item : debtProviderService.currentItems()) {
-            table.getTableModel().addDebtItem(item);
             priorities.add(item.getPriority());
             types.add(item.getType());
             wantedLevels.add(item.getWantedLevel());
@@ -83,4 +95,38 @@ public class DebtTableContainer extends JPanel {
 
         filters.updateFilters(priorities, types, wantedLevels, estimations);
     }
+
+    /**
+     * Apply the changes to the displayed rows instead of rebuilding the whole table.
+     */
+    public void applyChanges(final DebtChangeEvent event) {
+        final DebtTableModel tableModel = table.getTableModel();
+        final List<DebtItem> shownItems = new ArrayList<>();
+        for (DebtChange change : event.getChanges()) {
+            switch (change.getType()) {
+                case ADD -> {
+                    if (debtProviderService.isDisplayed(change.getRepoRoot())) {
+                        tableModel.addDebtItem(change.getNewItem());
+                        shownItems.add(change.getNewItem());
+                    }
+                }
+                case UPDATE -> {
+                    if (tableModel.updateDebtItem(change.getNewItem())) {
+                        shownItems.add(change.getNewItem());
+                    }
+                }
+                case REMOVE -> tableModel.removeDebtItem(change.getOldItem().getId());
+            }
+        }
+
+        if (!shownItems.stream().allMatch(filters::hasOptionsFor)) {
+            // A new value must be offered in the filters and editors: rebuild them from the displayed debts
+            table.updateTable();
+            updateFilters();
+            return;
+        }
+
+        shownItems.forEach(item -> table.adjustRowHeightForModelRow(tableModel.rowOf(item.getId())));
+        filters.updateCount();
+    }
 }
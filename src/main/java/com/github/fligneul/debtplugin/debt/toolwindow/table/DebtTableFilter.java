@@ -1,6 +1,7 @@
 package com.github.fligneul.debtplugin.debt.toolwindow.table;
 
 import com.github.fligneul.debtplugin.debt.model.Complexity;
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.model.Risk;
 import com.github.fligneul.debtplugin.debt.model.Status;
 import com.github.fligneul.debtplugin.debt.service.ColumnService;
@@ -347,6 +348,25 @@ public class DebtTableFilter extends JPanel {
         lineFilter.setText(line);
     }
 
+    /**
+     * @return true when every filterable value of the debt is already offered by the filters
+     */
+    public boolean hasOptionsFor(final DebtItem debtItem) {
+        final String module = debtItem.getCurrentModule();
+        return priorityFilter.hasOption(debtItem.getPriority())
+                && typeFilter.hasOption(debtItem.getType())
+                && wantedLevelFilter.hasOption(debtItem.getWantedLevel())
+                && estimationFilter.hasOption(debtItem.getEstimation())
+                && moduleFilter.hasOption(module == null || module.isBlank() ? "Unknown" : module);
+    }
+
+    /**
+     * Report the number of visible rows after rows have been added or removed.
+     */
+    public void updateCount() {
+        nbDebtsConsumer.accept(table.getRowCount());
+    }
+
     public void updateFilters(final TreeSet<String> priorities, final TreeSet<String> types, final TreeSet<Integer> wantedLevels, final TreeSet<Integer> estimations) {
         final LinkedHashMap<String, Integer> modules = debtService.extractModules(debtProviderService.currentItems());
 
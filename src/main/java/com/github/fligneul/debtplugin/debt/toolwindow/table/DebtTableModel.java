@@ -9,10 +9,14 @@ import com.github.fligneul.debtplugin.debt.service.DebtService;
 
 import javax.swing.table.DefaultTableModel;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DebtTableModel extends DefaultTableModel {
     private final List<DebtItem> debtItems = new ArrayList<>();
+    // Row of each displayed debt, keyed by debt id
+    private final Map<String, Integer> rowById = new HashMap<>();
     private final DebtService debtService;
 
     public DebtTableModel(DebtService debtService, ColumnService columnService) {
@@ -138,8 +142,46 @@ public class DebtTableModel extends DefaultTableModel {
     }
 
     public void addDebtItem(DebtItem debtItem) {
+        rowById.put(debtItem.getId(), debtItems.size());
         debtItems.add(debtItem);
-        addRow(new Object[]{
+        addRow(toRow(debtItem));
+    }
+
+    /**
+     * Replace the displayed debt having the same id.
+     *
+     * @return false when this debt is not displayed
+     */
+    public boolean updateDebtItem(DebtItem debtItem) {
+        final Integer row = rowById.get(debtItem.getId());
+        if (row == null) return false;
+
+        debtItems.set(row, debtItem);
+        dataVector.set(row, convertToVector(toRow(debtItem)));
+        fireTableRowsUpdated(row, row);
+        return true;
+    }
+
+    /**
+     * @return false when this debt is not displayed
+     */
+    public boolean removeDebtItem(String debtId) {
+        final Integer row = rowById.get(debtId);
+        if (row == null) return false;
+
+        remove(row);
+        return true;
+    }
+
+    /**
+     * @return the model row of the debt, -1 when it is not displayed
+     */
+    public int rowOf(String debtId) {
+        return rowById.getOrDefault(debtId, -1);
+    }
+
+    private Object[] toRow(DebtItem debtItem) {
+        return new Object[]{
                 debtItem.getId(),
                 displayedFile(debtItem.getFile()),
                 debtItem.getLine(),
@@ -160,13 +202,18 @@ public class DebtTableModel extends DefaultTableModel {
                 debtItem.getCreationDate(),
                 debtItem.getUpdateDate(),
                 null
-        });
+        };
     }
 
     public DebtItem remove(final int index) {
         final DebtItem remove = debtItems.remove(index);
         removeRow(index);
 
+        rowById.remove(remove.getId());
+        for (int row = index; row < debtItems.size(); row++) {
+            rowById.put(debtItems.get(row).getId(), row);
+        }
+
         return remove;
     }
 
@@ -183,6 +230,7 @@ public class DebtTableModel extends DefaultTableModel {
 
     public void clearAll() {
         debtItems.clear();
+        rowById.clear();
         setRowCount(0);
     }
 }
@@ -0,0 +1,74 @@
+package com.github.fligneul.debtplugin.debt.listener;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineEditScriptTest {
+
+    @Test
+    public void noEditKeepsLines() {
+        final LineEditScript script = new LineEditScript();
+
+        assertEquals(1, script.map(1));
+        assertEquals(42, script.map(42));
+        assertEquals(-1, script.firstMovedLine());
+    }
+
+    @Test
+    public void insertionShiftsTheLinesBelow() {
+        final LineEditScript script = new LineEditScript();
+        // Two line breaks typed at the end of line 5
+        script.add(5, 0, 2);
+
+        assertEquals(4, script.map(4));
+        assertEquals(5, script.map(5));
+        assertEquals(8, script.map(6));
+        assertEquals(6, script.firstMovedLine());
+    }
+
+    @Test
+    public void deletionMovesTheSpannedLinesToItsFirstLine() {
+        final LineEditScript script = new LineEditScript();
+        // Lines 3 to 5 joined into line 3
+        script.add(3, 2, 0);
+
+        assertEquals(2, script.map(2));
+        assertEquals(3, script.map(3));
+        assertEquals(3, script.map(4));
+        assertEquals(3, script.map(5));
+        assertEquals(4, script.map(6));
+    }
+
+    @Test
+    public void composedEditsMatchSequentialApplication() {
+        final Random random = new Random(42);
+        for (int run = 0; run < 2_000; run++) {
+            final LineEditScript script = new LineEditScript();
+            final List<int[]> edits = new ArrayList<>();
+            for (int i = random.nextInt(8); i >= 0; i--) {
+                final int[] edit = {1 + random.nextInt(30), random.nextInt(4), random.nextInt(4)};
+                edits.add(edit);
+                script.add(edit[0], edit[1], edit[2]);
+            }
+
+            for (int line = 1; line <= 60; line++) {
+                int expected = line;
+                for (int[] edit : edits) {
+                    expected = applyEdit(expected, edit[0], edit[1], edit[2]);
+                }
+                assertEquals("line " + line + " after " + edits.size() + " edit(s)", expected, script.map(line));
+            }
+        }
+    }
+
+    private static int applyEdit(final int line, final int startLine, final int oldLines, final int newLines) {
+        if (line < startLine) return line;
+        if (line <= startLine + oldLines) return startLine;
+        return line + newLines - oldLines;
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DebtFileFilterTest {
+
+    @Test
+    public void emptyFilterContainsNoFile() {
+        final DebtFileFilter filter = DebtFileFilter.of(Set.of());
+
+        assertFalse(filter.mightContain("/repo/src/Main.java"));
+    }
+
+    @Test
+    public void filteredFilesAreNeverMissed() {
+        final List<String> fileKeys = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            fileKeys.add("/repo|src/pkg" + (i % 50) + "/file" + i + ".java");
+        }
+        final DebtFileFilter filter = DebtFileFilter.of(fileKeys);
+
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.mightContain("/repo/src/pkg" + (i % 50) + "/File" + i + ".java"));
+            // Only the file name is filtered, whatever the separators
+            assertTrue(filter.mightContain("C:\\repo\\src\\file" + i + ".java"));
+        }
+    }
+
+    @Test
+    public void fewOtherFilesPassTheFilter() {
+        final List<String> fileKeys = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            fileKeys.add("/repo|src/file" + i + ".java");
+        }
+        final DebtFileFilter filter = DebtFileFilter.of(fileKeys);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("/repo/src/other" + i + ".java")) {
+                falsePositives++;
+            }
+        }
+        assertTrue("false positives: " + falsePositives, falsePositives < 500);
+    }
+
+    @Test
+    public void nonAsciiNamesAlwaysPass() {
+        final DebtFileFilter filter = DebtFileFilter.of(Set.of("/repo|src/main.java"));
+
+        assertTrue(filter.mightContain("/repo/src/D\u00e9bt.java"));
+    }
+}
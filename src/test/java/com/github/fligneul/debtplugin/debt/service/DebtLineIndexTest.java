@@ -0,0 +1,63 @@
+package com.github.fligneul.debtplugin.debt.service;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DebtLineIndexTest {
+
+    @Test
+    public void indexBuiltFromUnsortedInputIsSortedByLine() {
+        final DebtItem line12 = debt("a", 12);
+        final DebtItem line3 = debt("b", 3);
+        final DebtItem line7 = debt("c", 7);
+        final DebtItem line1 = debt("d", 1);
+
+        final DebtLineIndex index = DebtLineIndex.EMPTY.with(line12).with(line3).with(line7).with(line1);
+
+        assertEquals(List.of(line1, line3, line7, line12), index.all());
+        assertEquals(List.of(line7), index.onLine(7));
+        assertEquals(List.of(line7, line12), index.fromLine(4));
+        assertEquals(List.of(), index.onLine(5));
+        assertEquals(List.of(), index.fromLine(13));
+    }
+
+    @Test
+    public void debtsOfTheSameLineKeepTheirInsertionOrder() {
+        final DebtItem first = debt("a", 4);
+        final DebtItem second = debt("b", 4);
+        final DebtItem third = debt("c", 4);
+
+        final DebtLineIndex index = DebtLineIndex.EMPTY.with(first).with(debt("d", 9)).with(second).with(debt("e", 2)).with(third);
+
+        assertEquals(List.of(first, second, third), index.onLine(4));
+    }
+
+    @Test
+    public void withoutRemovesOnlyTheGivenDebt() {
+        final DebtItem kept = debt("a", 4);
+        final DebtItem removed = debt("b", 4);
+        final DebtLineIndex index = DebtLineIndex.EMPTY.with(kept).with(removed);
+
+        final DebtLineIndex updated = index.without("b");
+
+        assertEquals(List.of(kept), updated.onLine(4));
+        // Immutable: the previous instance is untouched
+        assertEquals(List.of(kept, removed), index.onLine(4));
+        assertSame(updated, updated.without("unknown"));
+        assertTrue(updated.without("a").isEmpty());
+    }
+
+    private static DebtItem debt(final String id, final int line) {
+        return DebtItem.newBuilder()
+                .withId(id)
+                .withFile("src/Main.java")
+                .withLine(line)
+                .build();
+    }
+}
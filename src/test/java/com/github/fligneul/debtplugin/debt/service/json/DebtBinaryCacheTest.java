@@ -0,0 +1,129 @@
+package com.github.fligneul.debtplugin.debt.service.json;
+
+import com.github.fligneul.debtplugin.debt.model.Complexity;
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import com.github.fligneul.debtplugin.debt.model.Relationship;
+import com.github.fligneul.debtplugin.debt.model.Risk;
+import com.github.fligneul.debtplugin.debt.model.Status;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DebtBinaryCacheTest {
+    private Path directory;
+    private DebtBinaryCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("debt-cache-test");
+        cache = new DebtBinaryCache(directory.resolve("cache"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void roundTripKeepsEveryField() throws IOException {
+        final File jsonFile = jsonFile("[]");
+        final DebtItem linked = DebtItem.newBuilder()
+                .withId("linked")
+                .withFile("src/Other.java")
+                .withLine(3)
+                .build();
+        final DebtItem debtItem = DebtItem.newBuilder()
+                .withId("debt")
+                .withFile("src/Main.java")
+                .withLine(42)
+                .withTitle("Title")
+                .withDescription("Multi-line\ndescription with unicode \u00e9\u4e2d")
+                .withUsername("user")
+                .withWantedLevel(2)
+                .withComplexity(Complexity.Easy)
+                .withStatus(Status.Accepted)
+                .withPriority("High")
+                .withRisk(Risk.Low)
+                .withTargetVersion("1.2")
+                .withComment("comment")
+                .withEstimation(5)
+                .withJira("JIRA-1")
+                .withCurrentModule("group:artifact")
+                .withType("Code")
+                .withLinks(Map.of("linked", Relationship.After))
+                .withCreateDate(1_700_000_000L)
+                .withUpdateDate(1_700_000_100L)
+                .build();
+
+        final DebtBinaryCache.Key key = cache.keyOf(jsonFile);
+        assertNotNull(key);
+        cache.write(key, List.of(debtItem, linked));
+        final List<DebtItem> read = cache.read(key);
+
+        assertNotNull(read);
+        assertEquals(2, read.size());
+        assertTrue(read.get(0).hasSameContent(debtItem));
+        assertTrue(read.get(1).hasSameContent(linked));
+        assertEquals(debtItem.getCreationDate(), read.get(0).getCreationDate());
+        assertEquals(debtItem.getUpdateDate(), read.get(0).getUpdateDate());
+    }
+
+    @Test
+    public void changedJsonFileInvalidatesTheEntry() throws IOException {
+        final File jsonFile = jsonFile("[]");
+        final DebtBinaryCache.Key key = cache.keyOf(jsonFile);
+        assertNotNull(key);
+        cache.write(key, List.of(DebtItem.newBuilder().withId("debt").build()));
+
+        Files.writeString(jsonFile.toPath(), "[ ]", StandardCharsets.UTF_8);
+        final DebtBinaryCache.Key newKey = cache.keyOf(jsonFile);
+
+        assertNotNull(newKey);
+        assertNull(cache.read(newKey));
+    }
+
+    @Test
+    public void missingOrCorruptedEntryIsIgnored() throws IOException {
+        final File jsonFile = jsonFile("[]");
+        final DebtBinaryCache.Key key = cache.keyOf(jsonFile);
+        assertNotNull(key);
+        assertNull(cache.read(key));
+
+        cache.write(key, List.of(DebtItem.newBuilder().withId("debt").build()));
+        try (Stream<Path> entries = Files.list(directory.resolve("cache"))) {
+            for (Path entry : entries.toList()) {
+                // Truncated in the middle of the debts
+                final byte[] bytes = Files.readAllBytes(entry);
+                Files.write(entry, Arrays.copyOf(bytes, bytes.length - 10));
+            }
+        }
+
+        assertNull(cache.read(key));
+    }
+
+    private File jsonFile(final String content) throws IOException {
+        final Path jsonFile = directory.resolve("debt.json");
+        Files.writeString(jsonFile, content, StandardCharsets.UTF_8);
+        return jsonFile.toFile();
+    }
+}
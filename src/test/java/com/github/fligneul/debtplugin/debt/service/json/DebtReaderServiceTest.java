@@ -0,0 +1,160 @@
+package com.github.fligneul.debtplugin.debt.service.json;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DebtReaderServiceTest {
+    private final DebtReaderService reader = new DebtReaderService();
+    private final DebtWriterService writer = new DebtWriterService();
+    private Path directory;
+    private File jsonFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("debt-reader-test");
+        jsonFile = directory.resolve("debt.json").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void readsWhatTheWriterStreamed() {
+        final List<DebtItem> debts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            debts.add(debt("debt" + i, i + 1, "Title " + i));
+        }
+        assertTrue(writer.write(jsonFile, debts));
+
+        final List<DebtItem> read = new ArrayList<>();
+        assertTrue(reader.readDebts(jsonFile, read::add, null));
+
+        assertEquals(debts.size(), read.size());
+        for (int i = 0; i < debts.size(); i++) {
+            assertTrue(read.get(i).hasSameContent(debts.get(i)));
+        }
+    }
+
+    @Test
+    public void emptyFileHasNoDebts() throws IOException {
+        Files.writeString(jsonFile.toPath(), "", StandardCharsets.UTF_8);
+
+        final List<DebtItem> read = new ArrayList<>();
+
+        assertTrue(reader.readDebts(jsonFile, read::add, null));
+        assertTrue(read.isEmpty());
+    }
+
+    @Test
+    public void truncatedFileIsReportedIncomplete() throws IOException {
+        assertTrue(writer.write(jsonFile, List.of(debt("a", 1, "A"), debt("b", 2, "B"))));
+        final String json = Files.readString(jsonFile.toPath(), StandardCharsets.UTF_8);
+        Files.writeString(jsonFile.toPath(), json.substring(0, json.lastIndexOf('"')), StandardCharsets.UTF_8);
+
+        final List<DebtItem> read = new ArrayList<>();
+
+        assertFalse(reader.readDebts(jsonFile, read::add, null));
+        assertEquals(1, read.size());
+    }
+
+    @Test
+    public void malformedFileIsReportedIncomplete() throws IOException {
+        final List<DebtItem> read = new ArrayList<>();
+
+        Files.writeString(jsonFile.toPath(), "[{\"id\": \"a\",,}]", StandardCharsets.UTF_8);
+        assertFalse(reader.readDebts(jsonFile, read::add, null));
+
+        Files.writeString(jsonFile.toPath(), "{\"id\": \"a\"}", StandardCharsets.UTF_8);
+        assertFalse(reader.readDebts(jsonFile, read::add, null));
+
+        assertTrue(read.isEmpty());
+    }
+
+    @Test
+    public void journalIsReplayedInAppendOrder() {
+        final DebtItem updated = debt("a", 1, "A");
+        final DebtItem removed = debt("b", 2, "B");
+        final DebtItem kept = debt("c", 3, "C");
+        assertTrue(writer.write(jsonFile, List.of(updated, removed, kept)));
+        assertTrue(writer.appendJournal(jsonFile, List.of(
+                DebtJournalRecord.upsert(debt("d", 4, "D")),
+                DebtJournalRecord.delete("b"))));
+        assertTrue(writer.appendJournal(jsonFile, List.of(
+                DebtJournalRecord.upsert(updated.toBuilder().withTitle("A2").build()))));
+
+        final List<DebtItem> debts = new ArrayList<>(reader.readDebts(jsonFile));
+        final int replayed = reader.replayJournal(jsonFile, debts);
+
+        assertEquals(3, replayed);
+        // Updated debts keep their position, new ones are appended
+        assertEquals(List.of("a", "c", "d"), debts.stream().map(DebtItem::getId).toList());
+        assertEquals("A2", debts.get(0).getTitle());
+    }
+
+    @Test
+    public void tornLastJournalLineIsSkipped() throws IOException {
+        assertTrue(writer.write(jsonFile, List.of(debt("a", 1, "A"))));
+        assertTrue(writer.appendJournal(jsonFile, List.of(
+                DebtJournalRecord.upsert(debt("b", 2, "B")),
+                DebtJournalRecord.upsert(debt("c", 3, "C")))));
+        // Interrupted append: only the beginning of the last record reached the disk
+        final Path journal = ADebtSerializer.journalFileOf(jsonFile).toPath();
+        final String content = Files.readString(journal, StandardCharsets.UTF_8);
+        final String lastLine = content.substring(content.lastIndexOf('\n', content.length() - 2) + 1);
+        Files.writeString(journal, content.substring(0, content.length() - lastLine.length() / 2), StandardCharsets.UTF_8);
+
+        final List<DebtItem> debts = new ArrayList<>(reader.readDebts(jsonFile));
+        final int replayed = reader.replayJournal(jsonFile, debts);
+
+        assertEquals(1, replayed);
+        assertEquals(List.of("a", "b"), debts.stream().map(DebtItem::getId).toList());
+    }
+
+    @Test
+    public void appendAfterTornLineKeepsTheNewRecords() throws IOException {
+        assertTrue(writer.write(jsonFile, List.of(debt("a", 1, "A"))));
+        final Path journal = ADebtSerializer.journalFileOf(jsonFile).toPath();
+        Files.writeString(journal, "{\"op\":\"upsert\",\"debt\":{\"id\":\"x\"", StandardCharsets.UTF_8, StandardOpenOption.CREATE);
+
+        assertTrue(writer.appendJournal(jsonFile, List.of(DebtJournalRecord.delete("a"))));
+        final List<DebtItem> debts = new ArrayList<>(reader.readDebts(jsonFile));
+        final int replayed = reader.replayJournal(jsonFile, debts);
+
+        assertEquals(1, replayed);
+        assertTrue(debts.isEmpty());
+    }
+
+    private static DebtItem debt(final String id, final int line, final String title) {
+        return DebtItem.newBuilder()
+                .withId(id)
+                .withFile("src/Main.java")
+                .withLine(line)
+                .withTitle(title)
+                .withDescription("Description of " + title)
+                .withUsername("user")
+                .build();
+    }
+}
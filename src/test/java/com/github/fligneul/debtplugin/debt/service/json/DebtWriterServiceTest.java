@@ -0,0 +1,82 @@
+package com.github.fligneul.debtplugin.debt.service.json;
+
+import com.github.fligneul.debtplugin.debt.model.DebtItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DebtWriterServiceTest {
+    private final DebtWriterService writer = new DebtWriterService();
+    private final DebtReaderService reader = new DebtReaderService();
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("debt-writer-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void writeReplacesTheFileWithoutLeavingTemporaryFiles() throws IOException {
+        final File jsonFile = directory.resolve("nested/dir/debt.json").toFile();
+
+        assertTrue(writer.write(jsonFile, List.of(debt("a"), debt("b"))));
+        assertTrue(writer.write(jsonFile, List.of(debt("c"))));
+
+        assertEquals(List.of("c"), reader.readDebts(jsonFile).stream().map(DebtItem::getId).toList());
+        try (Stream<Path> files = Files.list(jsonFile.toPath().getParent())) {
+            assertEquals(List.of(jsonFile.toPath()), files.toList());
+        }
+    }
+
+    @Test
+    public void failedWriteKeepsThePreviousFile() throws IOException {
+        final File jsonFile = directory.resolve("debt.json").toFile();
+        assertTrue(writer.write(jsonFile, List.of(debt("a"))));
+        // A directory in place of the parent makes the temporary file impossible to create
+        final File blocked = new File(jsonFile, "debt.json");
+
+        assertFalse(writer.write(blocked, List.of(debt("b"))));
+        assertEquals(List.of("a"), reader.readDebts(jsonFile).stream().map(DebtItem::getId).toList());
+    }
+
+    @Test
+    public void journalIsDeletedOnRequest() {
+        final File jsonFile = directory.resolve("debt.json").toFile();
+        assertEquals(0, writer.journalLength(jsonFile));
+
+        assertTrue(writer.appendJournal(jsonFile, List.of(DebtJournalRecord.delete("a"))));
+        assertTrue(writer.journalLength(jsonFile) > 0);
+
+        writer.deleteJournal(jsonFile);
+        assertEquals(0, writer.journalLength(jsonFile));
+    }
+
+    private static DebtItem debt(final String id) {
+        return DebtItem.newBuilder()
+                .withId(id)
+                .withFile("src/Main.java")
+                .withLine(1)
+                .build();
+    }
+}
@@ -4,11 +4,9 @@ import com.github.fligneul.debtplugin.debt.model.Complexity;
 import com.github.fligneul.debtplugin.debt.model.DebtItem;
 import com.github.fligneul.debtplugin.debt.model.Risk;
 import com.github.fligneul.debtplugin.debt.model.Status;
-import com.github.fligneul.debtplugin.debt.service.DebtService;
-import com.google.gson.GsonBuilder;
+import com.github.fligneul.debtplugin.debt.service.json.DebtWriterService;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -54,21 +52,15 @@ public class DebtGeneratorApp {
             debts.add(item);
         }
 
-        // Todo should use a WriterService but i doesn't exist yet.
-        var gson = new GsonBuilder()
-                .registerTypeAdapter(DebtItem.class, new DebtService.DebtItemDeserializer())
-                .setPrettyPrinting()
-                .create();
-
-        final String json = gson.toJson(debts);
-
         final Path jsonPath;
         try {
             jsonPath = Files.createTempFile("debts", ".json");
-            Files.writeString(jsonPath, json, StandardCharsets.UTF_8);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        if (!new DebtWriterService().write(jsonPath.toFile(), debts)) {
+            throw new IllegalStateException("Failed to write " + jsonPath);
+        }
 
         System.out.println("Done jsonPath = " + jsonPath);
     }